@@ -2,6 +2,10 @@ import controllers.*;
 import repositories.*;
 import services.*;
 import exceptions.AuthenticationException;
+import utils.IdAllocator;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * The main entry point of the housing project management application.
@@ -17,6 +21,7 @@ public class App {
     private void initializeApplication() {
         try {
             initRepositories();
+            initPersistence();
             initServices();
             initControllers();
         } catch (Exception e) {
@@ -27,15 +32,38 @@ public class App {
     }
 
     private void initRepositories() {
-        UserRepository.load();
-        ProjectRepository.load();
-        EnquiryRepository.load();
-        RegistrationRepository.load();
-        ApplicantRepository.load();
-        ApplicationRepository.load();
-        OfficerRepository.load();
-        ManagerRepository.load();
-        ReceiptRepository.load();
+        // Repositories only wait for the ones their load() looks records up in
+        RepositoryLoader loader = new RepositoryLoader()
+                .add("users", UserRepository::load)
+                .add("projects", ProjectRepository::load)
+                .add("enquiries", EnquiryRepository::load)
+                .add("applications", ApplicationRepository::load)
+                .add("registrations", RegistrationRepository::load, "users")
+                .add("applicants", ApplicantRepository::load, "users")
+                .add("officers", OfficerRepository::load, "users")
+                .add("managers", ManagerRepository::load, "users")
+                .add("receipts", ReceiptRepository::load, "users", "officers", "projects");
+
+        long start = System.nanoTime();
+        loader.loadAll(Runtime.getRuntime().availableProcessors());
+        System.out.println("Loaded repositories in " + (System.nanoTime() - start) / 1_000_000
+                + " ms (" + loader.formatTimings() + ").");
+    }
+
+    private void initPersistence() {
+        // Restore the ID counters; without a sequence file they are rebuilt from the loaded IDs once
+        if (!IdAllocator.open(Path.of("data/sequences.csv"))) {
+            ProjectRepository.getAll().forEach(project -> IdAllocator.PROJECTS.observe(project.getProjectID()));
+            ApplicationRepository.getAll().forEach(application -> IdAllocator.APPLICATIONS.observe(application.getApplicationID()));
+            EnquiryRepository.getAll().forEach(enquiry -> IdAllocator.ENQUIRIES.observe(enquiry.getEnquiryID()));
+            RegistrationRepository.getAll().forEach(registration -> IdAllocator.REGISTRATIONS.observe(registration.getRegistrationID()));
+            IdAllocator.save();
+        }
+
+        // Defer CSV writes to a background flusher; tune with -Dwritebehind.intervalMs / -Dwritebehind.threshold
+        WriteBehind.start(
+                Long.getLong("writebehind.intervalMs", 5000),
+                Integer.getInteger("writebehind.threshold", 500));
     }
 
     private void initServices() {
@@ -62,16 +90,78 @@ public class App {
         OfficerRepository.saveAll();
         ManagerRepository.saveAll();
         ReceiptRepository.saveAll();
+        WriteBehind.stop();
+        IdAllocator.save();
+        saveSnapshots();
+    }
+
+    private void saveSnapshots() {
+        // Only valid once the CSV files above are on disk, since each snapshot records its CSV's size and mtime
+        UserRepository.saveSnapshot();
+        ProjectRepository.saveSnapshot();
+        EnquiryRepository.saveSnapshot();
+        RegistrationRepository.saveSnapshot();
+        ApplicantRepository.saveSnapshot();
+        ApplicationRepository.saveSnapshot();
+        OfficerRepository.saveSnapshot();
+        ManagerRepository.saveSnapshot();
+        ReceiptRepository.saveSnapshot();
+    }
+
+    private void serveSessions() {
+        // One process serves many terminals; the repositories are saved when the process is stopped
+        int port = Integer.getInteger("server.port", 5050);
+        try {
+            SessionServer server = new SessionServer(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                saveRepositories();
+            }, "session-server-shutdown"));
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Error starting session server on port " + port + ": " + e.getMessage());
+            saveRepositories();
+        }
+    }
+
+    private void serveApi() {
+        // Requests are served on the server's own threads; the repositories are saved when the process is stopped
+        int port = Integer.getInteger("api.port", 8080);
+        try {
+            ApiServer server = new ApiServer(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                saveRepositories();
+            }, "api-server-shutdown"));
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Error starting API server on port " + port + ": " + e.getMessage());
+            saveRepositories();
+        }
     }
 
     /**
      * The main method that starts the application.
      * Initializes the application components and triggers the authentication process.
+     * <p>
+     * With {@code --serve}, it instead serves concurrent sessions over a local TCP socket on the
+     * port given by {@code -Dserver.port} (default 5050); connect with e.g. {@code nc localhost 5050}.
+     * With {@code --api}, it serves the JSON API of {@link ApiServer} on the port given by
+     * {@code -Dapi.port} (default 8080).
+     * </p>
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments; {@code --serve} or {@code --api} starts a server mode
      */
     public static void main(String[] args) {
         App app = new App();
+        if (args.length > 0 && args[0].equals("--serve")) {
+            app.serveSessions();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--api")) {
+            app.serveApi();
+            return;
+        }
         try {
             authController.runAuthentication();
         } catch (AuthenticationException e) {
@@ -0,0 +1,370 @@
+package controllers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.AuthenticationException;
+import models.Applicant;
+import models.Application;
+import models.Enquiry;
+import models.Project;
+import models.Session;
+import models.User;
+import models.enums.ApplicationStatus;
+import models.enums.FlatType;
+import models.enums.Role;
+import repositories.ApplicantRepository;
+import repositories.OfficerRepository;
+import repositories.UserRepository;
+import services.ApplicantApplicationService;
+import services.AuthService;
+import services.EnquiryService;
+import services.ProjectService;
+import utils.DateTimeUtils;
+import utils.JsonWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves project listings, application submission and enquiries as a JSON API over HTTP.
+ * <p>
+ * Endpoints, all authenticated with HTTP Basic using the user's NRIC and password:
+ * <ul>
+ *   <li>{@code GET /api/projects?location=&flatType=} lists the projects visible to the user</li>
+ *   <li>{@code POST /api/applications} with {@code projectName} and {@code flatType} applies for a flat</li>
+ *   <li>{@code POST /api/enquiries} with {@code projectName} and {@code query} creates an enquiry</li>
+ * </ul>
+ * POST parameters are sent form-encoded. Each request runs on its own virtual thread when the
+ * runtime has them (Java 21+), inside a {@link Session} for the authenticated user, so the
+ * services behave as they do for that user in the console. Officers act as applicants.
+ * </p>
+ */
+public class ApiServer implements AutoCloseable {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AuthService authService = AuthService.getInstance();
+    private final ProjectService projectService = ProjectService.getInstance();
+    private final ApplicantApplicationService applicationService = ApplicantApplicationService.getInstance();
+    private final EnquiryService enquiryService = EnquiryService.getInstance();
+
+    /**
+     * Binds the server to the loopback address. It does not accept requests until {@link #start()}.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public ApiServer(int port) throws IOException {
+        // Headers and body go out as separate writes; without TCP_NODELAY each keep-alive response
+        // waits on the client's delayed ACK, capping a connection at about 25 requests/sec
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = SessionServer.newThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/projects", exchange -> handle(exchange, "GET", this::listProjects));
+        server.createContext("/api/applications", exchange -> handle(exchange, "POST", this::submitApplication));
+        server.createContext("/api/enquiries", exchange -> handle(exchange, "POST", this::createEnquiry));
+    }
+
+    /**
+     * Starts accepting requests in the background.
+     */
+    public void start() {
+        server.start();
+        System.out.println("Serving API on http://" + server.getAddress().getAddress().getHostAddress() + ":" + getPort() + "/api.");
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits briefly for requests in progress to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Handles one endpoint call for an authenticated user, writing the response into {@code json}.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        int call(User user, Map<String, String> params, JsonWriter json);
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) {
+        try (exchange) {
+            JsonWriter json = new JsonWriter();
+            int status;
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                status = error(json, 405, "Method not allowed");
+            } else {
+                Map<String, String> params = readParams(exchange);
+                if (params == null) {
+                    status = error(json, 413, "Request body is too large");
+                } else {
+                    status = call(exchange, endpoint, params, json);
+                }
+            }
+            if (status == 401) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"bto\"");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, json.size());
+            try (OutputStream body = exchange.getResponseBody()) {
+                json.writeTo(body);
+            }
+        } catch (IOException e) {
+            // The client went away before the response was written
+        }
+    }
+
+    private int call(HttpExchange exchange, Endpoint endpoint, Map<String, String> params, JsonWriter json) {
+        String[] credentials = basicCredentials(exchange.getRequestHeaders().getFirst("Authorization"));
+        if (credentials == null) {
+            return error(json, 401, "Authentication required");
+        }
+        int[] status = new int[1];
+        new Session(null, null).run(() -> {
+            try {
+                User user = authService.login(credentials[0], credentials[1]);
+                if (user.getRole() == Role.OFFICER) {
+                    UserRepository.setUserMode(Role.APPLICANT);
+                }
+                status[0] = endpoint.call(user, params, json);
+            } catch (AuthenticationException e) {
+                json.reset();
+                status[0] = error(json, 401, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                json.reset();
+                status[0] = error(json, 400, e.getMessage());
+            } catch (IllegalStateException e) {
+                json.reset();
+                status[0] = error(json, 409, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+                json.reset();
+                status[0] = error(json, 500, "Internal server error");
+            }
+        });
+        return status[0];
+    }
+
+    private int listProjects(User user, Map<String, String> params, JsonWriter json) {
+        Map<String, String> filters = new HashMap<>();
+        String location = params.get("location");
+        if (location != null && !location.isBlank()) {
+            filters.put("location", location);
+        }
+        String flatType = params.get("flatType");
+        if (flatType != null && !flatType.isBlank()) {
+            filters.put("flatType", parseFlatType(flatType).name());
+        }
+
+        List<Project> projects = projectService.getFilteredProjects(filters);
+        json.beginObject().name("projects").beginArray();
+        for (Project project : projects) {
+            writeProject(json, project);
+        }
+        json.endArray().endObject();
+        return 200;
+    }
+
+    private int submitApplication(User user, Map<String, String> params, JsonWriter json) {
+        Applicant applicant = asApplicant(user);
+        if (applicant == null) {
+            return error(json, 403, "Only applicants can apply for flats");
+        }
+        Project project = projectService.getProjectByName(require(params, "projectName"));
+        if (project == null) {
+            return error(json, 404, "Project not found");
+        }
+        FlatType flatType = parseFlatType(require(params, "flatType"));
+        if (!projectService.getVisibleProjects().contains(project)) {
+            return error(json, 403, "You are not eligible to apply for this project");
+        }
+
+        if (!applicationService.submitApplication(applicant, project, flatType)) {
+            return error(json, 409, "You have an existing BTO application");
+        }
+        for (Application application : applicationService.getApplicationsByApplicant(applicant)) {
+            if (application.getApplicationStatus() == ApplicationStatus.PENDING
+                    && application.getProjectId().equals(project.getProjectID())) {
+                json.beginObject().name("application");
+                writeApplication(json, application);
+                json.endObject();
+                return 201;
+            }
+        }
+        json.beginObject().endObject();
+        return 201;
+    }
+
+    private int createEnquiry(User user, Map<String, String> params, JsonWriter json) {
+        Applicant applicant = asApplicant(user);
+        if (applicant == null) {
+            return error(json, 403, "Only applicants can submit enquiries");
+        }
+        Project project = projectService.getProjectByName(require(params, "projectName"));
+        if (project == null || !project.isVisible()) {
+            return error(json, 404, "Project not found");
+        }
+
+        Enquiry enquiry = new Enquiry(applicant.getUserNRIC(), project.getProjectID(), require(params, "query"));
+        enquiryService.createEnquiry(enquiry);
+        json.beginObject().name("enquiry");
+        writeEnquiry(json, enquiry);
+        json.endObject();
+        return 201;
+    }
+
+    private static Applicant asApplicant(User user) {
+        if (user.getRole() == Role.APPLICANT) {
+            return ApplicantRepository.getByNRIC(user.getUserNRIC());
+        }
+        if (user.getRole() == Role.OFFICER) {
+            return OfficerRepository.getByNRIC(user.getUserNRIC());
+        }
+        return null;
+    }
+
+    private static void writeProject(JsonWriter json, Project project) {
+        json.beginObject()
+                .name("id").value(project.getProjectID())
+                .name("name").value(project.getProjectName())
+                .name("location").value(project.getLocation())
+                .name("openDate").value(DateTimeUtils.formatDateTime(project.getApplicationOpenDate()))
+                .name("closeDate").value(DateTimeUtils.formatDateTime(project.getApplicationCloseDate()))
+                .name("flats").beginArray();
+        project.forEachFlatType((flatType, available, price) -> json.beginObject()
+                .name("type").value(flatType.name())
+                .name("available").value(available)
+                .name("price").value(price)
+                .endObject());
+        json.endArray().endObject();
+    }
+
+    private static void writeApplication(JsonWriter json, Application application) {
+        json.beginObject()
+                .name("id").value(application.getApplicationID())
+                .name("projectId").value(application.getProjectId())
+                .name("flatType").value(application.getSelectedFlatType().name())
+                .name("status").value(application.getApplicationStatus().name())
+                .name("applicationDate").value(DateTimeUtils.formatDateTime(application.getApplicationDate()))
+                .endObject();
+    }
+
+    private static void writeEnquiry(JsonWriter json, Enquiry enquiry) {
+        json.beginObject()
+                .name("id").value(enquiry.getEnquiryID())
+                .name("projectId").value(enquiry.getProjectID())
+                .name("query").value(enquiry.getQuery())
+                .name("status").value(enquiry.getEnquiryStatus().name())
+                .name("enquiryDate").value(DateTimeUtils.formatDateTime(enquiry.getEnquiryDate()))
+                .endObject();
+    }
+
+    private static int error(JsonWriter json, int status, String message) {
+        json.beginObject().name("error").value(message).endObject();
+        return status;
+    }
+
+    private static String require(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static FlatType parseFlatType(String value) {
+        try {
+            return FlatType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown flat type: " + value);
+        }
+    }
+
+    /**
+     * Decodes a Basic {@code Authorization} header into an NRIC and password.
+     */
+    private static String[] basicCredentials(String header) {
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = decoded.indexOf(':');
+        return colon < 0 ? null : new String[] { decoded.substring(0, colon), decoded.substring(colon + 1) };
+    }
+
+    /**
+     * Reads the query string and, for form-encoded requests, the body into one map.
+     *
+     * @return the parameters, or null if the body is too large
+     */
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (body.length > MAX_BODY_BYTES) {
+                    return null;
+                }
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                // Skip malformed percent-escapes
+            }
+        }
+    }
+}
@@ -65,8 +65,12 @@ public class EnquiryController {
 
         Enquiry enquiry = EnquiryView.getEnquiryInput(applicant.getUserNRIC(), availableProjects);
         if (enquiry != null) {
-            enquiryService.createEnquiry(enquiry);
-            EnquiryView.displayEnquiryCreatedMessage();
+            try {
+                enquiryService.createEnquiry(enquiry);
+                EnquiryView.displayEnquiryCreatedMessage();
+            } catch (IllegalStateException e) {
+                CommonView.displayError("Enquiry submission failed: " + e.getLocalizedMessage());
+            }
         }
     }
 
@@ -14,7 +14,6 @@ import models.User;
 import models.enums.ApplicationStatus;
 import models.enums.EnquiryStatus;
 import models.enums.RegistrationStatus;
-import repositories.ProjectRepository;
 import repositories.UserRepository;
 import services.ApplicationService;
 import services.EnquiryService;
@@ -214,10 +213,6 @@ public class ManagerController {
                                     "Confirm APPROVAL of withdrawal request for application ID " + selectedApplication.getApplicationID() + "?", "APPROVE")) {
                                 success = applicationService.approveWithdrawal(selectedApplication, manager);
                                 if (success) {
-                                    if (selectedApplication.getApplicationStatus() == ApplicationStatus.BOOKED) {
-                                        project.incrementFlatCount(selectedApplication.getSelectedFlatType());
-                                        ProjectRepository.saveAll();
-                                    }
                                     ManagerView.displayWithdrawalApprovedSuccess(applicantName);
                                 } else {
                                     ManagerView.displayWithdrawalActionFailed("approve");
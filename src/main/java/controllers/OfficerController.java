@@ -1,7 +1,6 @@
 package controllers;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Optional;
 
 import models.Applicant;
@@ -21,6 +20,7 @@ import repositories.ReceiptRepository;
 import repositories.RegistrationRepository;
 import services.*;
 import views.*;
+import utils.UnitInventory;
 import interfaces.IOfficerService;
 
 /**
@@ -77,7 +77,12 @@ public class OfficerController {
                 continue;
             }
 
-            officerService.registerOfficerForProject(officer, selectedProject);
+            try {
+                officerService.registerOfficerForProject(officer, selectedProject);
+            } catch (IllegalStateException e) {
+                CommonView.displayError("Registration failed: " + e.getLocalizedMessage());
+                break;
+            }
             CommonView.displayMessage("You have successfully registered to handle project: " + selectedProject.getProjectName() + "! Please wait for approval.");
             break;
         }
@@ -191,9 +196,8 @@ public class OfficerController {
      */
     public void manageSuccessfulApplications(Project project, Officer officer) {
         while (true) {
-            List<Application> relevantApplications = applicationService.getProjectApplications(project).stream()
-                .filter(app -> app.getApplicationStatus() == ApplicationStatus.SUCCESSFUL || app.getApplicationStatus() == ApplicationStatus.BOOKED)
-                .collect(Collectors.toList());
+            List<Application> relevantApplications = applicationService.getProjectApplications(project,
+                ApplicationStatus.SUCCESSFUL, ApplicationStatus.BOOKED);
             
             if (relevantApplications.isEmpty()) {
                 CommonView.displayMessage("No successful or booked applications found for this project.");
@@ -244,13 +248,19 @@ public class OfficerController {
                 }
 
                 if (CommonView.promptYesNo("Do you want to book this application? (This will update status to BOOKED and reduce flat count)")) {
-                    String unitNumber = CommonView.prompt("Enter the unit number assigned (e.g., 04-001): ");
-                    if (unitNumber == null || unitNumber.trim().isEmpty() || !unitNumber.matches("\\d{2}-\\d{3}")) {
+                    String unitNumber = promptUnitNumber(project);
+                    if (unitNumber == null) {
                         CommonView.displayError("Invalid unit number format (expected XX-XXX). Booking cancelled.");
                         continue;
                     }
 
-                    boolean booked = applicationService.bookApplication(selectedApplication, officer, unitNumber);
+                    boolean booked;
+                    if (unitNumber.isEmpty()) {
+                        unitNumber = applicationService.bookNextFreeUnit(selectedApplication, officer);
+                        booked = unitNumber != null;
+                    } else {
+                        booked = applicationService.bookApplication(selectedApplication, officer, unitNumber);
+                    }
                     
                     if (booked) {
                         CommonView.displaySuccess("Application ID " + selectedApplication.getApplicationID() + " successfully booked for unit " + unitNumber + ".");
@@ -270,6 +280,39 @@ public class OfficerController {
         }
     }
 
+    /**
+     * <p>Prompts for the unit number to assign in a project.</p>
+     * <ul>
+     *   <li>Suggests the next free unit, which is booked if the officer just presses Enter.</li>
+     *   <li>Lists the free units on a floor when the officer enters {@code F<floor>}, e.g. {@code F4}.</li>
+     * </ul>
+     * @param project The project being booked.
+     * @return The unit number entered, an empty string for the next free unit, or {@code null} if the input is invalid.
+     */
+    private String promptUnitNumber(Project project) {
+        while (true) {
+            String nextFree = ReceiptRepository.getNextFreeUnit(project.getProjectID());
+            String input = CommonView.prompt("Enter the unit number assigned (e.g., 04-001), F<floor> to list free units on a floor, or press Enter for the next free unit"
+                    + (nextFree != null ? " (" + nextFree + ")" : "") + ": ");
+            if (input.isEmpty() || UnitInventory.isValidUnit(input)) {
+                return input;
+            }
+            if (input.matches("[Ff]\\d{1,2}")) {
+                int floor = Integer.parseInt(input.substring(1));
+                List<String> free = ReceiptRepository.getFreeUnitsOnFloor(project.getProjectID(), floor);
+                if (free.isEmpty()) {
+                    CommonView.displayMessage("No free units on floor " + floor + ".");
+                } else {
+                    List<String> shown = free.subList(0, Math.min(free.size(), 20));
+                    CommonView.displayMessage("Free units on floor " + floor + ": " + String.join(", ", shown)
+                            + (free.size() > shown.size() ? " and " + (free.size() - shown.size()) + " more" : ""));
+                }
+                continue;
+            }
+            return null;
+        }
+    }
+
     /**
      * <p>Generates a receipt for a successful booking of an application.</p>
      * <ul>
@@ -0,0 +1,124 @@
+package controllers;
+
+import models.Session;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the login menu to many terminals at once over a local TCP socket.
+ * <p>
+ * Each connection gets its own {@link Session} and {@link AuthController}, and runs the same
+ * menus as the console, reading lines from and writing text to the socket. All sessions share
+ * the repositories loaded by the process. Each connection runs on a virtual thread when the
+ * runtime has them (Java 21+), and on a pooled platform thread otherwise.
+ * </p>
+ */
+public class SessionServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    /**
+     * Opens the server socket on the loopback address.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the socket cannot be opened
+     */
+    public SessionServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.executor = newThreadPerTaskExecutor();
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of sessions currently connected.
+     *
+     * @return the active session count
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each on its own thread.
+     */
+    public void serve() {
+        System.out.println("Serving sessions on " + serverSocket.getInetAddress().getHostAddress() + ":" + getPort() + ".");
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                // Closed while waiting for a connection
+            } catch (IOException e) {
+                System.err.println("Error accepting session: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (socket) {
+            Session session = new Session(socket.getInputStream(),
+                    new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8));
+            session.run(() -> new AuthController().runAuthentication());
+        } catch (NoSuchElementException e) {
+            // The terminal disconnected mid-prompt
+        } catch (IOException e) {
+            System.err.println("Session error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Session ended unexpectedly: " + e.getMessage());
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting connections and waits briefly for open sessions to finish.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing session server: " + e.getMessage());
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the runtime supports it. The lookup is
+     * reflective so the project still builds and runs on Java 17.
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
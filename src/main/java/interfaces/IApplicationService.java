@@ -6,15 +6,18 @@ import models.Application;
 import models.Manager;
 import models.Officer;
 import models.Project;
+import models.enums.ApplicationStatus;
 
 /**
  * Interface for managing housing application operations.
  */
 public interface IApplicationService {
     List<Application> getProjectApplications(Project project);
+    List<Application> getProjectApplications(Project project, ApplicationStatus... statuses);
     boolean approveApplication(Application application, Manager manager);
     boolean rejectApplication(Application application, Manager manager);
     boolean approveWithdrawal(Application application, Manager manager);
     boolean rejectWithdrawal(Application application, Manager manager);
     boolean bookApplication(Application application, Officer officer, String selectedUnitNumber);
+    String bookNextFreeUnit(Application application, Officer officer);
 }
@@ -0,0 +1,49 @@
+package interfaces;
+
+import utils.CsvRecord;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
+
+import java.io.IOException;
+
+/**
+ * <p>Interface for converting items to and from their stored forms.</p>
+ * <p>Each item is stored as one CSV row, and as one entry in the repository's binary snapshot.</p>
+ *
+ * @param <T> The type of items converted.
+ */
+public interface ICsvCodec<T> {
+    /**
+     * <p>Creates an item from a CSV row.</p>
+     *
+     * @param record The row to read.
+     * @return The item, or null to skip the row.
+     */
+    T decode(CsvRecord record);
+
+    /**
+     * <p>Fills a CSV row with the columns of an item.</p>
+     *
+     * @param item The item to write.
+     * @param record An empty row to fill.
+     */
+    void encode(T item, CsvRecord record);
+
+    /**
+     * <p>Writes an item to a binary snapshot.</p>
+     *
+     * @param item The item to write.
+     * @param out The snapshot to write to.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    void writeSnapshot(T item, SnapshotOutput out) throws IOException;
+
+    /**
+     * <p>Reads an item written by {@link #writeSnapshot}.</p>
+     *
+     * @param in The snapshot to read from.
+     * @return The item, or null to skip it.
+     * @throws IOException If the snapshot is truncated or malformed.
+     */
+    T readSnapshot(SnapshotInput in) throws IOException;
+}
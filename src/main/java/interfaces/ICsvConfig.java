@@ -19,4 +19,14 @@ public interface ICsvConfig {
      * @return The file path as a string.
      */
     String getFilePath();
+
+    /**
+     * <p>Whether large files may be memory-mapped and parsed in parallel chunks.</p>
+     * <p>Record order is preserved either way. Defaults to a sequential read.</p>
+     *
+     * @return true to allow parallel loading.
+     */
+    default boolean isParallelLoad() {
+        return false;
+    }
 }
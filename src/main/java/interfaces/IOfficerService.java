@@ -53,6 +53,7 @@ public interface IOfficerService {
      *
      * @param officer The officer to register.
      * @param project The project for registration.
+     * @throws IllegalStateException if the new registration's ID is already taken.
      */
     void registerOfficerForProject(Officer officer, Project project);
 
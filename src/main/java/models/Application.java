@@ -1,11 +1,15 @@
 package models;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import models.enums.ApplicationStatus;
 import models.enums.FlatType;
+import utils.DateTimeUtils;
+import utils.IdAllocator;
 
 /**
  * Represents an application made by an applicant for a project.
@@ -16,9 +20,17 @@ import models.enums.FlatType;
  *   <li>Handling approval, rejection, booking, and withdrawal of applications</li>
  *   <li>Tracking application status changes with timestamps</li>
  * </ul>
+ * <p>
+ * The status history is a {@code long[]} of epoch milliseconds indexed by
+ * {@code ApplicationStatus.ordinal()}, with {@link #NO_TIMESTAMP} for statuses never reached.
+ * </p>
  */
 public class Application {
-    private static int lastApplicationID = 0;
+    /** The history value of a status the application has never been in. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+
+    private static Consumer<Application> changeListener = application -> {};
 
     private String applicationID;
     private String applicantNRIC;
@@ -28,7 +40,7 @@ public class Application {
     private boolean isWithdrawalRequested;
     private LocalDateTime applicationDate;
     private String approvedBy;
-    private Map<ApplicationStatus, LocalDateTime> applicationStatusHistory;
+    private final long[] statusTimes;
 
     /**
      * <p>Creates a new application with the given details.</p>
@@ -37,15 +49,15 @@ public class Application {
      * @param selectedFlatType The flat type selected by the applicant.
      */
     public Application(String applicantNRIC, String projectId, FlatType selectedFlatType) {
-        this.applicationID = "A" + (++Application.lastApplicationID);
+        this.applicationID = IdAllocator.APPLICATIONS.next();
         this.applicantNRIC = applicantNRIC;
         this.projectId = projectId;
         this.selectedFlatType = selectedFlatType;
         this.applicationStatus = ApplicationStatus.PENDING;
         this.isWithdrawalRequested = false;
-        this.applicationDate = LocalDateTime.now();
+        this.applicationDate = DateTimeUtils.getCurrentDateTime();
         this.approvedBy = null;
-        this.applicationStatusHistory = new HashMap<>();
+        this.statusTimes = emptyHistory();
         recordStatusChange(ApplicationStatus.PENDING);
     }
 
@@ -65,6 +77,31 @@ public class Application {
                        FlatType selectedFlatType, ApplicationStatus applicationStatus,
                        boolean isWithdrawalRequested, LocalDateTime applicationDate,
                        String approvedBy, Map<ApplicationStatus, LocalDateTime> statusHistory) {
+        this(applicationID, applicantNRIC, projectId, selectedFlatType, applicationStatus,
+                isWithdrawalRequested, applicationDate, approvedBy, toStatusTimes(statusHistory));
+    }
+
+    /**
+     * <p>Creates a new application with all details provided, taking the status history as epoch
+     * milliseconds. Used when loading from the repository.</p>
+     * @param applicationID Unique application ID.
+     * @param applicantNRIC NRIC of the applicant.
+     * @param projectId ID of the project.
+     * @param selectedFlatType The flat type selected by the applicant.
+     * @param applicationStatus Current status of the application.
+     * @param isWithdrawalRequested Whether withdrawal has been requested.
+     * @param applicationDate Date when the application was submitted.
+     * @param approvedBy The person who approved or rejected the application.
+     * @param statusTimes Epoch milliseconds indexed by status ordinal, {@link #NO_TIMESTAMP} for
+     *                    statuses never reached. The array is kept, not copied.
+     */
+    public Application(String applicationID, String applicantNRIC, String projectId,
+                       FlatType selectedFlatType, ApplicationStatus applicationStatus,
+                       boolean isWithdrawalRequested, LocalDateTime applicationDate,
+                       String approvedBy, long[] statusTimes) {
+        if (statusTimes.length != STATUSES.length) {
+            throw new IllegalArgumentException("Status history must have one entry per status");
+        }
         this.applicationID = applicationID;
         this.applicantNRIC = applicantNRIC;
         this.projectId = projectId;
@@ -73,15 +110,51 @@ public class Application {
         this.isWithdrawalRequested = isWithdrawalRequested;
         this.applicationDate = applicationDate;
         this.approvedBy = approvedBy;
-        this.applicationStatusHistory = statusHistory != null ? new HashMap<>(statusHistory) : new HashMap<>();
+        this.statusTimes = statusTimes;
+    }
 
-        try {
-            int numericId = Integer.parseInt(applicationID.replaceAll("\\D+", ""));
-            if (numericId > Application.lastApplicationID) {
-                Application.lastApplicationID = numericId;
-            }
-        } catch (NumberFormatException ignored) {
+    /**
+     * <p>Sets the listener told whenever an application's status, applicant or project changes,
+     * so that indexes over those fields can follow.</p>
+     * @param listener The listener, or null to remove it.
+     */
+    public static void setChangeListener(Consumer<Application> listener) {
+        changeListener = listener != null ? listener : application -> {};
+    }
+
+    /**
+     * <p>Creates a status history with no statuses reached, for the loading constructor.</p>
+     * @return A new array filled with {@link #NO_TIMESTAMP}.
+     */
+    public static long[] emptyHistory() {
+        long[] statusTimes = new long[STATUSES.length];
+        Arrays.fill(statusTimes, NO_TIMESTAMP);
+        return statusTimes;
+    }
+
+    private static long[] toStatusTimes(Map<ApplicationStatus, LocalDateTime> statusHistory) {
+        long[] statusTimes = emptyHistory();
+        if (statusHistory != null) {
+            statusHistory.forEach((status, timestamp) -> {
+                if (timestamp != null) {
+                    statusTimes[status.ordinal()] = DateTimeUtils.toEpochMilli(timestamp);
+                }
+            });
         }
+        return statusTimes;
+    }
+
+    /**
+     * <p>Receives each status an application has been in, with the time it was recorded.</p>
+     */
+    @FunctionalInterface
+    public interface StatusChangeVisitor {
+        /**
+         * <p>Visits one status change.</p>
+         * @param status The status.
+         * @param epochMilli When it was recorded, in epoch milliseconds.
+         */
+        void visit(ApplicationStatus status, long epochMilli);
     }
 
     // Getters
@@ -155,16 +228,65 @@ public class Application {
      * @return A map of status changes and their timestamps.
      */
     public Map<ApplicationStatus, LocalDateTime> getApplicationStatusHistory() {
-        return new HashMap<>(applicationStatusHistory);
+        Map<ApplicationStatus, LocalDateTime> history = new EnumMap<>(ApplicationStatus.class);
+        forEachStatusChange((status, epochMilli) -> history.put(status, DateTimeUtils.fromEpochMilli(epochMilli)));
+        return history;
     }
 
     /**
      * <p>Gets the timestamp when a specific status was recorded.</p>
      * @param status The application status.
-     * @return The timestamp when the status was recorded.
+     * @return The timestamp when the status was recorded, or null if it never was.
      */
     public LocalDateTime getApplicationStatusTimestamp(ApplicationStatus status) {
-        return applicationStatusHistory.get(status);
+        long epochMilli = getApplicationStatusEpochMilli(status);
+        return epochMilli != NO_TIMESTAMP ? DateTimeUtils.fromEpochMilli(epochMilli) : null;
+    }
+
+    /**
+     * <p>Gets when a specific status was recorded, without creating a date-time.</p>
+     * @param status The application status.
+     * @return The epoch milliseconds, or {@link #NO_TIMESTAMP} if it never was.
+     */
+    public long getApplicationStatusEpochMilli(ApplicationStatus status) {
+        return statusTimes[status.ordinal()];
+    }
+
+    /**
+     * <p>Checks whether the application has ever been in a status.</p>
+     * @param status The application status.
+     * @return True if the status was recorded.
+     */
+    public boolean hasReachedStatus(ApplicationStatus status) {
+        return statusTimes[status.ordinal()] != NO_TIMESTAMP;
+    }
+
+    /**
+     * <p>Visits each recorded status in the order it was recorded, earliest first, without copying
+     * the history. Statuses recorded at the same millisecond are visited in status order.</p>
+     * @param visitor The visitor to call for each status.
+     */
+    public void forEachStatusChange(StatusChangeVisitor visitor) {
+        long lastTime = Long.MIN_VALUE;
+        int lastOrdinal = -1;
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < statusTimes.length; i++) {
+                long time = statusTimes[i];
+                if (time == NO_TIMESTAMP || time < lastTime || (time == lastTime && i <= lastOrdinal)) {
+                    continue;
+                }
+                if (next == -1 || time < statusTimes[next]) {
+                    next = i;
+                }
+            }
+            if (next == -1) {
+                return;
+            }
+            lastTime = statusTimes[next];
+            lastOrdinal = next;
+            visitor.visit(STATUSES[next], lastTime);
+        }
     }
 
     // Setters
@@ -183,6 +305,7 @@ public class Application {
      */
     public void setApplicantNRIC(String applicantNRIC) {
         this.applicantNRIC = applicantNRIC;
+        changeListener.accept(this);
     }
 
     /**
@@ -191,6 +314,7 @@ public class Application {
      */
     public void setProjectId(String projectId) {
         this.projectId = projectId;
+        changeListener.accept(this);
     }
 
     /**
@@ -286,8 +410,9 @@ public class Application {
 
 
     private void recordStatusChange(ApplicationStatus status) {
-        applicationStatusHistory.put(status, LocalDateTime.now());
+        statusTimes[status.ordinal()] = DateTimeUtils.currentTimeMillis();
         this.applicationStatus = status;
+        changeListener.accept(this);
     }
 
     public boolean canBook() {
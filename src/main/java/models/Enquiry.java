@@ -3,6 +3,8 @@ package models;
 import java.time.LocalDateTime;
 
 import models.enums.EnquiryStatus;
+import utils.DateTimeUtils;
+import utils.IdAllocator;
 
 /**
  * Represents an enquiry made by an applicant regarding a project.
@@ -15,7 +17,6 @@ import models.enums.EnquiryStatus;
  * </ul>
  */
 public class Enquiry {
-    private static int lastEnquiryID = 0;
 
     private String enquiryID;
     private String applicantNRIC;
@@ -35,13 +36,13 @@ public class Enquiry {
      * @param query the applicant's question or query
      */
     public Enquiry(String applicantNRIC, String projectID, String query) {
-        this.enquiryID = "E" + (++Enquiry.lastEnquiryID);
+        this.enquiryID = IdAllocator.ENQUIRIES.next();
         this.applicantNRIC = applicantNRIC;
         this.projectID = projectID;
         this.query = query;
         this.response = null;
         this.enquiryStatus = EnquiryStatus.PENDING;
-        this.enquiryDate = LocalDateTime.now();
+        this.enquiryDate = DateTimeUtils.getCurrentDateTime();
         this.lastUpdated = this.enquiryDate;
         this.respondedBy = null;
     }
@@ -88,14 +89,6 @@ public class Enquiry {
         this.enquiryDate = enquiryDate;
         this.lastUpdated = lastUpdated;
         this.respondedBy = respondedBy;
-
-        try {
-            int numericId = Integer.parseInt(enquiryID.replaceAll("\\D+", ""));
-            if (numericId > Enquiry.lastEnquiryID) {
-                Enquiry.lastEnquiryID = numericId;
-            }
-        } catch (NumberFormatException ignored) {
-        }
     }
 
     // Getters
@@ -265,7 +258,7 @@ public class Enquiry {
         this.response = response;
         this.enquiryStatus = EnquiryStatus.RESPONDED;
         this.respondedBy = responder;
-        this.lastUpdated = LocalDateTime.now();
+        this.lastUpdated = DateTimeUtils.getCurrentDateTime();
     }
 
     /**
@@ -2,11 +2,13 @@ package models;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
 
 import models.enums.FlatType;
+import utils.IdAllocator;
 import views.CommonView;
 
 /**
@@ -17,16 +19,22 @@ import views.CommonView;
  * methods for adding/removing applicants and officers, checking application status, and managing
  * available units for each flat type.
  * </p>
+ * <p>
+ * Flat types are kept in {@link FlatType} order. Units and prices are stored in arrays indexed by
+ * {@code FlatType.ordinal()}, so the per-type accessors and {@link #forEachFlatType} do not allocate.
+ * </p>
  */
 public class Project {
-    private static int lastProjectID = 0;
+    private static final FlatType[] FLAT_TYPES = FlatType.values();
+    private static Consumer<Project> changeListener = project -> {};
 
     private String projectID;
     private String managerNRIC;
     private String projectName;
     private String location;
-    private Map<FlatType, Integer> flatTypeToUnit;
-    private Map<FlatType, Integer> flatTypeToSellingPrice;
+    private final EnumSet<FlatType> flatTypes = EnumSet.noneOf(FlatType.class);
+    private final AtomicIntegerArray availableUnits = new AtomicIntegerArray(FLAT_TYPES.length);
+    private final int[] sellingPrices = new int[FLAT_TYPES.length];
     private LocalDateTime applicationOpenDate;
     private LocalDateTime applicationCloseDate;
     private int officerSlots;
@@ -53,15 +61,12 @@ public class Project {
                    List<FlatType> flatTypes, List<Integer> flatTypeUnits, List<Integer> flatTypeSellingPrice,
                    LocalDateTime applicationOpenDate, LocalDateTime applicationCloseDate,
                    int officerSlots, boolean isVisible) {
-        this.projectID = "P" + (++Project.lastProjectID);
+        this.projectID = IdAllocator.PROJECTS.next();
         this.managerNRIC = managerNRIC;
         this.projectName = projectName;
         this.location = location;
-        this.flatTypeToUnit = new HashMap<>();
-        this.flatTypeToSellingPrice = new HashMap<>();
         for (int i = 0; i < flatTypes.size(); i++) {
-            this.flatTypeToUnit.put(flatTypes.get(i), flatTypeUnits.get(i));
-            this.flatTypeToSellingPrice.put(flatTypes.get(i), flatTypeSellingPrice.get(i));
+            putFlatType(flatTypes.get(i), flatTypeUnits.get(i), flatTypeSellingPrice.get(i));
         }
         this.applicationOpenDate = applicationOpenDate;
         this.applicationCloseDate = applicationCloseDate;
@@ -86,7 +91,7 @@ public class Project {
     public Project(String managerNRIC, String projectName, String location,
                   LocalDateTime applicationOpenDate, LocalDateTime applicationCloseDate,
                   int officerSlots, boolean visible) {
-        this.projectID = "P" + (++lastProjectID);
+        this.projectID = IdAllocator.PROJECTS.next();
         this.managerNRIC = managerNRIC;
         this.projectName = projectName;
         this.location = location;
@@ -124,11 +129,8 @@ public class Project {
         this.managerNRIC = managerNRIC;
         this.projectName = projectName;
         this.location = location;
-        this.flatTypeToUnit = new HashMap<>();
-        this.flatTypeToSellingPrice = new HashMap<>();
         for (int i = 0; i < flatTypes.size(); i++) {
-            this.flatTypeToUnit.put(flatTypes.get(i), flatTypeUnits.get(i));
-            this.flatTypeToSellingPrice.put(flatTypes.get(i), flatTypeSellingPrice.get(i));
+            putFlatType(flatTypes.get(i), flatTypeUnits.get(i), flatTypeSellingPrice.get(i));
         }
         this.applicationOpenDate = applicationOpenDate;
         this.applicationCloseDate = applicationCloseDate;
@@ -136,14 +138,31 @@ public class Project {
         this.isVisible = isVisible;
         this.applicants = applicants != null ? applicants : new ArrayList<>();
         this.officers = officers != null ? officers : new ArrayList<>();
+    }
 
-        try {
-            int numericId = Integer.parseInt(projectID.replaceAll("\\D+", ""));
-            if (numericId > Project.lastProjectID) {
-                Project.lastProjectID = numericId;
-            }
-        } catch (NumberFormatException ignored) {
-        }
+    /**
+     * Sets the listener told whenever a project's name, manager, flat types, application dates,
+     * visibility or officers change, so that indexes and caches over those fields can follow.
+     *
+     * @param listener the listener, or null to remove it
+     */
+    public static void setChangeListener(Consumer<Project> listener) {
+        changeListener = listener != null ? listener : project -> {};
+    }
+
+    /**
+     * Receives each flat type a project offers, with its available units and selling price.
+     */
+    @FunctionalInterface
+    public interface FlatTypeVisitor {
+        /**
+         * Visits one flat type.
+         *
+         * @param flatType the flat type
+         * @param availableUnits the number of units still available
+         * @param sellingPrice the selling price
+         */
+        void visit(FlatType flatType, int availableUnits, int sellingPrice);
     }
 
     // Getters
@@ -185,30 +204,67 @@ public class Project {
     }
 
     /**
-     * Gets a copy of the list of flat types available in the project.
+     * Gets a copy of the list of flat types available in the project, in {@link FlatType} order.
      *
      * @return a list of flat types
      */
     public List<FlatType> getFlatTypes() {
-        return new ArrayList<>(flatTypeToUnit.keySet());
+        return new ArrayList<>(flatTypes);
     }
 
     /**
      * Gets a copy of the list of available units for each flat type in the project.
      *
-     * @return a list of available units for each flat type
+     * @return a list of available units, in the same order as {@link #getFlatTypes()}
      */
     public List<Integer> getFlatTypeUnits() {
-        return new ArrayList<>(flatTypeToUnit.values());
+        List<Integer> units = new ArrayList<>(flatTypes.size());
+        forEachFlatType((flatType, available, price) -> units.add(available));
+        return units;
     }
 
     /**
      * Gets a copy of the list of selling prices for each flat type in the project.
      *
-     * @return a list of selling prices for each flat type
+     * @return a list of selling prices, in the same order as {@link #getFlatTypes()}
      */
     public List<Integer> getFlatTypeSellingPrice() {
-        return new ArrayList<>(flatTypeToSellingPrice.values());
+        List<Integer> prices = new ArrayList<>(flatTypes.size());
+        forEachFlatType((flatType, available, price) -> prices.add(price));
+        return prices;
+    }
+
+    /**
+     * Gets the number of flat types available in the project.
+     *
+     * @return the flat type count
+     */
+    public int getFlatTypeCount() {
+        return flatTypes.size();
+    }
+
+    /**
+     * Checks whether the project offers a flat type.
+     *
+     * @param type the flat type to check
+     * @return true if the project offers it
+     */
+    public boolean hasFlatType(FlatType type) {
+        return type != null && flatTypes.contains(type);
+    }
+
+    /**
+     * Visits each flat type the project offers, in {@link FlatType} order, without copying.
+     *
+     * @param visitor the visitor to call for each flat type
+     */
+    public void forEachFlatType(FlatTypeVisitor visitor) {
+        for (FlatType flatType : FLAT_TYPES) {
+            if (flatTypes.contains(flatType)) {
+                int index = flatType.ordinal();
+                visitor.visit(flatType, availableUnits.get(index), sellingPrices[index]);
+            }
+        }
     }
 
     /**
@@ -283,6 +339,7 @@ public class Project {
      */
     public void setManagerNRIC(String managerNRIC) {
         this.managerNRIC = managerNRIC;
+        changeListener.accept(this);
     }
 
     /**
@@ -292,6 +349,7 @@ public class Project {
      */
     public void setProjectName(String projectName) {
         this.projectName = projectName;
+        changeListener.accept(this);
     }
 
     /**
@@ -309,33 +367,38 @@ public class Project {
      * @param flatTypes a list of flat types
      */
     public void setFlatTypes(List<FlatType> flatTypes) {
-        this.flatTypeToUnit.clear();
-        for (int i = 0; i < flatTypes.size(); i++) {
-            this.flatTypeToUnit.put(flatTypes.get(i), flatTypeToUnit.get(flatTypes.get(i)));
+        for (FlatType flatType : FLAT_TYPES) {
+            if (!flatTypes.contains(flatType)) {
+                this.flatTypes.remove(flatType);
+                availableUnits.set(flatType.ordinal(), 0);
+                sellingPrices[flatType.ordinal()] = 0;
+            }
         }
+        this.flatTypes.addAll(flatTypes);
+        changeListener.accept(this);
     }
 
     /**
      * Sets the list of available units for each flat type in the project.
      *
-     * @param flatTypeUnits a list of available units for each flat type
+     * @param flatTypeUnits a list of available units, in the same order as {@link #getFlatTypes()}
      */
     public void setFlatTypeUnits(List<Integer> flatTypeUnits) {
         int i = 0;
-        for (FlatType flatType : flatTypeToUnit.keySet()) {
-            this.flatTypeToUnit.put(flatType, flatTypeUnits.get(i++));
+        for (FlatType flatType : flatTypes) {
+            this.availableUnits.set(flatType.ordinal(), flatTypeUnits.get(i++));
         }
     }
 
     /**
      * Sets the list of selling prices for each flat type in the project.
      *
-     * @param flatTypeSellingPrice a list of selling prices for each flat type
+     * @param flatTypeSellingPrice a list of selling prices, in the same order as {@link #getFlatTypes()}
      */
     public void setFlatTypeSellingPrice(List<Integer> flatTypeSellingPrice) {
         int i = 0;
-        for (FlatType flatType : flatTypeToSellingPrice.keySet()) {
-            this.flatTypeToSellingPrice.put(flatType, flatTypeSellingPrice.get(i++));
+        for (FlatType flatType : flatTypes) {
+            this.sellingPrices[flatType.ordinal()] = flatTypeSellingPrice.get(i++);
         }
     }
 
@@ -346,6 +409,7 @@ public class Project {
      */
     public void setApplicationOpenDate(LocalDateTime applicationOpenDate) {
         this.applicationOpenDate = applicationOpenDate;
+        changeListener.accept(this);
     }
 
     /**
@@ -355,6 +419,7 @@ public class Project {
      */
     public void setApplicationCloseDate(LocalDateTime applicationCloseDate) {
         this.applicationCloseDate = applicationCloseDate;
+        changeListener.accept(this);
     }
 
     /**
@@ -373,6 +438,7 @@ public class Project {
      */
     public void setVisible(boolean isVisible) {
         this.isVisible = isVisible;
+        changeListener.accept(this);
     }
 
     /**
@@ -407,12 +473,14 @@ public class Project {
     }
 
     public void addFlatType(FlatType type, int units, int price) {
-        if (flatTypeToUnit == null) {
-            flatTypeToUnit = new HashMap<>();
-            flatTypeToSellingPrice = new HashMap<>();
-        }
-        flatTypeToUnit.put(type, units);
-        flatTypeToSellingPrice.put(type, price);
+        putFlatType(type, units, price);
+        changeListener.accept(this);
+    }
+
+    private void putFlatType(FlatType type, int units, int price) {
+        flatTypes.add(type);
+        availableUnits.set(type.ordinal(), units);
+        sellingPrices[type.ordinal()] = price;
     }
 
     /**
@@ -423,6 +491,7 @@ public class Project {
     public void addOfficer(String officerNRIC) {
         if (!officers.contains(officerNRIC)) {
             officers.add(officerNRIC);
+            changeListener.accept(this);
         } else {
             CommonView.displayMessage("Officer " + officerNRIC + " already exists in project " + projectID + ".");
         }
@@ -434,8 +503,8 @@ public class Project {
      * @param officerNRIC the NRIC of the officer to be removed
      */
     public void removeOfficer(String officerNRIC) {
-        if (officers != null) {
-            officers.remove(officerNRIC);
+        if (officers != null && officers.remove(officerNRIC)) {
+            changeListener.accept(this);
         }
     }
 
@@ -457,34 +526,82 @@ public class Project {
         applicants.remove(applicantNRIC);
     }
 
+    /**
+     * Atomically takes one available unit of a flat type, if there is one.
+     * <p>
+     * The check and the decrement are a single compare-and-set, so concurrent bookings can
+     * never take more units than are available.
+     * </p>
+     *
+     * @param type the flat type to reserve
+     * @return true if a unit was taken, false if none are left
+     * @throws IllegalArgumentException if the project does not offer the flat type
+     */
+    public boolean tryReserve(FlatType type) {
+        requireFlatType(type);
+        int index = type.ordinal();
+        while (true) {
+            int units = availableUnits.get(index);
+            if (units <= 0) {
+                return false;
+            }
+            if (availableUnits.compareAndSet(index, units, units - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically returns one unit of a flat type, e.g. when a booking is withdrawn.
+     *
+     * @param type the flat type to release
+     * @throws IllegalArgumentException if the project does not offer the flat type
+     */
+    public void release(FlatType type) {
+        requireFlatType(type);
+        availableUnits.incrementAndGet(type.ordinal());
+    }
+
     /**
      * Reduces the available units for a given flat type by one.
      *
      * @param type the flat type to reduce
      */
     public void reduceFlatCount(FlatType type) {
-        if (!flatTypeToUnit.containsKey(type)) {
-            throw new IllegalArgumentException("Flat type not found in project");
-        }
-        flatTypeToUnit.put(type, flatTypeToUnit.get(type) - 1);
+        requireFlatType(type);
+        availableUnits.decrementAndGet(type.ordinal());
     }
 
     public void incrementFlatCount(FlatType flatType) {
-        if (!flatTypeToUnit.containsKey(flatType)) {
+        release(flatType);
+    }
+
+    private void requireFlatType(FlatType type) {
+        if (!hasFlatType(type)) {
             throw new IllegalArgumentException("Flat type not found in project");
         }
-        flatTypeToUnit.put(flatType, flatTypeToUnit.get(flatType) + 1);
     }
 
     /**
      * Retrieves the index of a given flat type.
      *
      * @param type the flat type to search for
-     * @return the index of the flat type, or -1 if not found
+     * @return the index of the flat type in {@link #getFlatTypes()}, or -1 if not found
      */
     public int getFlatTypeIndex(FlatType type) {
-        List<FlatType> flatTypes = getFlatTypes();
-        return flatTypes.indexOf(type);
+        if (!hasFlatType(type)) {
+            return -1;
+        }
+        int index = 0;
+        for (FlatType flatType : FLAT_TYPES) {
+            if (flatType == type) {
+                return index;
+            }
+            if (flatTypes.contains(flatType)) {
+                index++;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -494,18 +611,16 @@ public class Project {
      * @return the number of available units for the flat type
      */
     public int getAvailableUnits(FlatType type) {
-        int index = getFlatTypeIndex(type);
-        return index != -1 ? flatTypeToUnit.get(type) : 0;
+        return hasFlatType(type) ? availableUnits.get(type.ordinal()) : 0;
     }
 
     /**
      * Retrieves the selling price of a given flat type.
      *
      * @param type the flat type to get the price for
-     * @return the selling price of the flat type
+     * @return the selling price of the flat type, or 0 if the project does not offer it
      */
     public int getFlatPrice(FlatType type) {
-        int index = getFlatTypeIndex(type);
-        return index != -1 ? flatTypeToSellingPrice.get(type) : 0;
+        return hasFlatType(type) ? sellingPrices[type.ordinal()] : 0;
     }
 }
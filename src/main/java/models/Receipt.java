@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import models.enums.FlatType;
 import models.enums.MaritalStatus;
+import utils.DateTimeUtils;
 
 /**
  * Represents a receipt issued for a housing project booking by an applicant.
@@ -60,7 +61,7 @@ public class Receipt {
         this.projectName = projectName;
         this.projectID = projectID;
         this.projectLocation = projectLocation;
-        this.bookingTimestamp = LocalDateTime.now();
+        this.bookingTimestamp = DateTimeUtils.getCurrentDateTime();
         this.officer = officer;
     }
 
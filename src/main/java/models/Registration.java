@@ -3,6 +3,8 @@ package models;
 import java.time.LocalDateTime;
 
 import models.enums.RegistrationStatus;
+import utils.DateTimeUtils;
+import utils.IdAllocator;
 
 /**
  * Represents a registration for a housing project.
@@ -13,7 +15,6 @@ import models.enums.RegistrationStatus;
  * </p>
  */
 public class Registration {
-    private static int lastRegistrationID = 0;
 
     private String registrationID;
     private User officer;
@@ -31,11 +32,11 @@ public class Registration {
      * @param projectID the ID of the project
      */
     public Registration(User officer, String projectID) {
-        this.registrationID = "R" + (++Registration.lastRegistrationID);
+        this.registrationID = IdAllocator.REGISTRATIONS.next();
         this.officer = officer;
         this.projectID = projectID;
         this.registrationStatus = RegistrationStatus.PENDING;
-        this.registrationDate = LocalDateTime.now();
+        this.registrationDate = DateTimeUtils.getCurrentDateTime();
         this.lastUpdated = this.registrationDate;
         this.approvedBy = null;
     }
@@ -61,14 +62,6 @@ public class Registration {
         this.registrationDate = registrationDate;
         this.lastUpdated = lastUpdated;
         this.approvedBy = approvedBy;
-
-        try {
-            int numericId = Integer.parseInt(registrationID.replaceAll("\\D+", ""));
-            if (numericId > Registration.lastRegistrationID) {
-                Registration.lastRegistrationID = numericId;
-            }
-        } catch (NumberFormatException ignored) {
-        }
     }
 
     // Getters
@@ -175,7 +168,7 @@ public class Registration {
     public void approve(User manager) {
         this.registrationStatus = RegistrationStatus.APPROVED;
         this.approvedBy = manager;
-        this.lastUpdated = LocalDateTime.now();
+        this.lastUpdated = DateTimeUtils.getCurrentDateTime();
     }
 
     /**
@@ -186,6 +179,6 @@ public class Registration {
     public void reject(User manager) {
         this.registrationStatus = RegistrationStatus.REJECTED;
         this.approvedBy = manager;
-        this.lastUpdated = LocalDateTime.now();
+        this.lastUpdated = DateTimeUtils.getCurrentDateTime();
     }
 }
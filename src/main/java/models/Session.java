@@ -0,0 +1,125 @@
+package models;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import models.enums.Role;
+
+/**
+ * Represents one user's session: their terminal input and output, and who is logged in.
+ * <p>
+ * Each session is bound to the thread serving it, and the views and {@code UserRepository}
+ * read the current session instead of process-wide statics. This lets one process serve many
+ * terminals at once over shared repositories. Threads with no bound session use the console
+ * session, backed by {@code System.in} and {@code System.out}.
+ * </p>
+ */
+public class Session {
+    private static final Session console = new Session(null, null);
+    private static final ThreadLocal<Session> current = new ThreadLocal<>();
+
+    private final InputStream input;
+    private final PrintStream output;
+    private Scanner scanner;
+    private volatile User activeUser;
+    private volatile Role userMode;
+
+    /**
+     * Creates a session reading from and writing to the given streams.
+     *
+     * @param input the terminal input, or null for {@code System.in}
+     * @param output the terminal output, or null for {@code System.out}
+     */
+    public Session(InputStream input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Gets the session bound to the calling thread.
+     *
+     * @return the bound session, or the console session if none is bound
+     */
+    public static Session current() {
+        Session session = current.get();
+        return session != null ? session : console;
+    }
+
+    /**
+     * Runs a task with this session bound to the calling thread, unbinding it afterwards.
+     *
+     * @param task the task to run, typically the login menu
+     */
+    public void run(Runnable task) {
+        Session previous = current.get();
+        current.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the scanner reading this session's input. It is created on first use.
+     *
+     * @return the input scanner
+     */
+    public synchronized Scanner getScanner() {
+        if (scanner == null) {
+            scanner = new Scanner(input != null ? input : System.in, StandardCharsets.UTF_8);
+        }
+        return scanner;
+    }
+
+    /**
+     * Gets the stream this session's output is written to.
+     *
+     * @return the output stream
+     */
+    public PrintStream getOut() {
+        return output != null ? output : System.out;
+    }
+
+    /**
+     * Gets the user logged in to this session.
+     *
+     * @return the active user, or null if nobody is logged in
+     */
+    public User getActiveUser() {
+        return activeUser;
+    }
+
+    /**
+     * Sets the user logged in to this session.
+     *
+     * @param user the user, or null to log out
+     */
+    public void setActiveUser(User user) {
+        this.activeUser = user;
+    }
+
+    /**
+     * Gets the role the active user is currently acting as, e.g. an officer acting as an applicant.
+     *
+     * @return the current user mode
+     */
+    public Role getUserMode() {
+        return userMode;
+    }
+
+    /**
+     * Sets the role the active user is currently acting as.
+     *
+     * @param mode the role
+     */
+    public void setUserMode(Role mode) {
+        this.userMode = mode;
+    }
+}
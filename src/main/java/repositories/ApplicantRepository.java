@@ -1,14 +1,15 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 import models.Applicant;
 import models.User;
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repository class responsible for managing applicants in the system.
@@ -34,72 +35,99 @@ public class ApplicantRepository {
         }
     }
 
-    // List to store applicants
-    private static List<Applicant> applicants = new ArrayList<>();
+    /**
+     * Converts applicants to and from CSV rows and snapshot entries.
+     */
+    private static class ApplicantCodec implements ICsvCodec<Applicant> {
+        @Override
+        public Applicant decode(CsvRecord record) {
+            User userData = UserRepository.getByNRIC(record.get("ApplicantNRIC"));
+            if (userData == null) {
+                System.err.println("Applicant NRIC not found in users.csv: " + record.get("ApplicantNRIC"));
+                return null;
+            }
+
+            List<String> appliedProjects = new ArrayList<>();
+            if (record.get("AppliedProjects") != null && !record.get("AppliedProjects").isEmpty()) {
+                appliedProjects = Arrays.asList(record.get("AppliedProjects").split("/"));
+            }
+
+            Applicant applicant = new Applicant(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    appliedProjects
+            );
+            applicant.setMaritalStatus(userData.getMaritalStatus());
+            return applicant;
+        }
+
+        @Override
+        public void encode(Applicant applicant, CsvRecord record) {
+            record.put("ApplicantNRIC", applicant.getUserNRIC());
+            record.put("AppliedProjects", String.join("/", applicant.getAppliedProjects()));
+        }
+
+        @Override
+        public void writeSnapshot(Applicant applicant, SnapshotOutput out) throws IOException {
+            out.writeString(applicant.getUserNRIC());
+            out.writeStrings(applicant.getAppliedProjects());
+        }
+
+        @Override
+        public Applicant readSnapshot(SnapshotInput in) throws IOException {
+            String nric = in.readString();
+            List<String> appliedProjects = in.readStrings();
+
+            User userData = UserRepository.getByNRIC(nric);
+            if (userData == null) {
+                System.err.println("Applicant NRIC not found in users.csv: " + nric);
+                return null;
+            }
+
+            Applicant applicant = new Applicant(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    appliedProjects
+            );
+            applicant.setMaritalStatus(userData.getMaritalStatus());
+            return applicant;
+        }
+    }
+
+    private static final CsvRepository<Applicant> applicants =
+            new CsvRepository<>("applicants", new ApplicantCsvConfig(), new ApplicantCodec(), Applicant::getUserNRIC);
 
-    // Private constructor to prevent instantiation
     private ApplicantRepository() {}
 
     /**
      * Saves all applicants to the CSV file.
      * <p>
-     * The applicants are written in CSV format with each applicant's NRIC and list of applied projects.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
     public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Applicant applicant : applicants) {
-            Map<String, String> record = new HashMap<>();
-            record.put("ApplicantNRIC", applicant.getUserNRIC());
-            record.put("AppliedProjects", String.join("/", applicant.getAppliedProjects()));
-            records.add(record);
-        }
+        applicants.saveAll();
+    }
 
-        try {
-            CsvWriter.write(new ApplicantCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving applicants: " + e.getMessage());
-        }
+    /**
+     * Loads applicants from the snapshot if it is current, otherwise from the CSV file.
+     */
+    public static void load() {
+        applicants.load();
     }
 
     /**
-     * Loads applicants from the CSV file and populates the applicants list.
+     * Writes a binary snapshot of all applicants so the next start can skip parsing the CSV file.
      * <p>
-     * The method fetches user data from the `UserRepository` and combines it with applicants' applied projects
-     * to create the full applicant objects.
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
      * </p>
      */
-    public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new ApplicantCsvConfig());
-            applicants = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                User userData = UserRepository.getByNRIC(record.get("ApplicantNRIC"));
-                if (userData == null) {
-                    System.err.println("Applicant NRIC not found in users.csv: " + record.get("ApplicantNRIC"));
-                    continue;
-                }
-
-                List<String> appliedProjects = new ArrayList<>();
-                if (record.get("AppliedProjects") != null && !record.get("AppliedProjects").isEmpty()) {
-                    appliedProjects = Arrays.asList(record.get("AppliedProjects").split("/"));
-                }
-
-                Applicant applicant = new Applicant(
-                        userData.getUserNRIC(),
-                        userData.getName(),
-                        userData.getPassword(),
-                        userData.getAge(),
-                        appliedProjects
-                );
-                applicant.setMaritalStatus(userData.getMaritalStatus());
-                applicants.add(applicant);
-            }
-            System.out.println("Loaded " + applicants.size() + " applicants from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading applicants: " + e.getMessage());
-        }
+    public static void saveSnapshot() {
+        applicants.saveSnapshot();
     }
 
     /**
@@ -108,7 +136,7 @@ public class ApplicantRepository {
      * @return a list of all applicants
      */
     public static List<Applicant> getAll() {
-        return applicants;
+        return applicants.getAll();
     }
 
     /**
@@ -127,10 +155,7 @@ public class ApplicantRepository {
      * @return the applicant with the specified NRIC, or {@code null} if not found
      */
     public static Applicant getByNRIC(String nric) {
-        return applicants.stream()
-                .filter(applicant -> applicant.getUserNRIC().equals(nric))
-                .findFirst()
-                .orElse(null);
+        return applicants.get(nric);
     }
 
     /**
@@ -140,17 +165,10 @@ public class ApplicantRepository {
      * @return a list of applicants who applied for the specified project
      */
     public static List<Applicant> getByProject(String projectId) {
-        return applicants.stream()
-                .filter(applicant -> applicant.getAppliedProjects().contains(projectId))
-                .collect(Collectors.toList());
+        return applicants.filter(applicant -> applicant.getAppliedProjects().contains(projectId));
     }
 
     public static void update(Applicant applicant) {
-        int index = applicants.indexOf(applicant);
-        if (index != -1) {
-            applicants.set(index, applicant);
-        }
-
-        saveAll();
+        applicants.update(applicant);
     }
 }
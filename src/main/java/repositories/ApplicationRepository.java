@@ -4,15 +4,17 @@ import models.Applicant;
 import models.Application;
 import models.enums.ApplicationStatus;
 import models.enums.FlatType;
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
 import utils.DateTimeUtils;
+import utils.NricCodec;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repository class responsible for managing application data.
@@ -38,14 +40,169 @@ public class ApplicationRepository {
                     "ApplicationStatus", "IsWithdrawalRequested", "ApplicationDate",
                     "ApprovedBy", "ApplicationStatusHistory");
         }
+
+        @Override
+        public boolean isParallelLoad() {
+            return true;
+        }
+    }
+
+    /**
+     * Converts applications to and from CSV rows and snapshot entries.
+     */
+    private static class ApplicationCodec implements ICsvCodec<Application> {
+        private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+
+        @Override
+        public Application decode(CsvRecord record) {
+            long[] statusHistory = decodeStatusHistory(record.get("ApplicationStatusHistory"));
+
+            return new Application(
+                    record.get("ApplicationID"),
+                    NricCodec.intern(record.get("ApplicantNRIC")),
+                    record.get("ProjectID"),
+                    FlatType.valueOf(record.get("SelectedFlatType")),
+                    ApplicationStatus.valueOf(record.get("ApplicationStatus")),
+                    Boolean.parseBoolean(record.get("IsWithdrawalRequested")),
+                    DateTimeUtils.parseDateTime(record.get("ApplicationDate")),
+                    record.get("ApprovedBy").isEmpty() ? null : NricCodec.intern(record.get("ApprovedBy")),
+                    statusHistory
+            );
+        }
+
+        @Override
+        public void encode(Application application, CsvRecord record) {
+            record.put("ApplicationID", application.getApplicationID());
+            record.put("ApplicantNRIC", application.getApplicantNRIC());
+            record.put("ProjectID", application.getProjectId());
+            record.put("SelectedFlatType", application.getSelectedFlatType().toString());
+            record.put("ApplicationStatus", application.getApplicationStatus().getKey());
+            record.put("IsWithdrawalRequested", String.valueOf(application.isWithdrawalRequested()));
+            record.put("ApplicationDate", DateTimeUtils.formatDateTime(application.getApplicationDate()));
+            record.put("ApprovedBy", application.getApprovedBy() != null ? application.getApprovedBy() : "");
+
+            StringBuilder statusHistory = new StringBuilder();
+            application.forEachStatusChange((status, epochMilli) -> {
+                if (statusHistory.length() > 0) {
+                    statusHistory.append('/');
+                }
+                statusHistory.append(status.getKey()).append(';').append(epochMilli);
+            });
+            record.put("ApplicationStatusHistory", statusHistory.toString());
+        }
+
+        /**
+         * Parses a status history written as {@code STATUS;epochMillis} entries separated by
+         * {@code /}. Entries from older files, whose time is an ISO date-time, are also accepted.
+         */
+        private static long[] decodeStatusHistory(String value) {
+            long[] statusTimes = Application.emptyHistory();
+            if (value == null || value.isEmpty()) {
+                return statusTimes;
+            }
+            int start = 0;
+            while (start < value.length()) {
+                int end = value.indexOf('/', start);
+                if (end < 0) {
+                    end = value.length();
+                }
+                int separator = value.indexOf(';', start);
+                if (separator < 0 || separator > end) {
+                    throw new IllegalArgumentException("Malformed status history entry: " + value.substring(start, end));
+                }
+                ApplicationStatus status = statusOf(value, start, separator);
+                int timeStart = separator + 1;
+                int iso = value.indexOf('T', timeStart);
+                if (iso >= 0 && iso < end) {
+                    LocalDateTime timestamp = DateTimeUtils.parseDateTime(value, timeStart, end);
+                    if (timestamp != null) {
+                        statusTimes[status.ordinal()] = DateTimeUtils.toEpochMilli(timestamp);
+                    }
+                } else {
+                    statusTimes[status.ordinal()] = Long.parseLong(value, timeStart, end, 10);
+                }
+                start = end + 1;
+            }
+            return statusTimes;
+        }
+
+        private static ApplicationStatus statusOf(String value, int start, int end) {
+            for (ApplicationStatus status : STATUSES) {
+                String name = status.name();
+                if (name.length() == end - start && value.startsWith(name, start)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown application status: " + value.substring(start, end));
+        }
+
+        @Override
+        public void writeSnapshot(Application application, SnapshotOutput out) throws IOException {
+            out.writeString(application.getApplicationID());
+            out.writeString(application.getApplicantNRIC());
+            out.writeString(application.getProjectId());
+            out.writeEnum(application.getSelectedFlatType());
+            out.writeEnum(application.getApplicationStatus());
+            out.writeBoolean(application.isWithdrawalRequested());
+            out.writeDateTime(application.getApplicationDate());
+            out.writeString(application.getApprovedBy());
+
+            int historySize = 0;
+            for (ApplicationStatus status : STATUSES) {
+                if (application.hasReachedStatus(status)) {
+                    historySize++;
+                }
+            }
+            out.writeInt(historySize);
+            for (ApplicationStatus status : STATUSES) {
+                if (application.hasReachedStatus(status)) {
+                    out.writeEnum(status);
+                    out.writeLong(application.getApplicationStatusEpochMilli(status));
+                }
+            }
+        }
+
+        @Override
+        public Application readSnapshot(SnapshotInput in) throws IOException {
+            String applicationID = in.readString();
+            String applicantNRIC = NricCodec.intern(in.readString());
+            String projectID = in.readString();
+            FlatType flatType = in.readEnum(FlatType.class);
+            ApplicationStatus status = in.readEnum(ApplicationStatus.class);
+            boolean withdrawalRequested = in.readBoolean();
+            LocalDateTime applicationDate = in.readDateTime();
+            String approvedBy = NricCodec.intern(in.readString());
+            if (approvedBy != null && approvedBy.isEmpty()) {
+                approvedBy = null;
+            }
+
+            long[] statusHistory = Application.emptyHistory();
+            int historySize = in.readInt();
+            for (int i = 0; i < historySize; i++) {
+                statusHistory[in.readEnum(ApplicationStatus.class).ordinal()] = in.readLong();
+            }
+
+            return new Application(applicationID, applicantNRIC, projectID, flatType, status,
+                    withdrawalRequested, applicationDate, approvedBy, statusHistory);
+        }
+    }
+
+    private static final CsvRepository<Application> applications =
+            new CsvRepository<>("applications", new ApplicationCsvConfig(), new ApplicationCodec(), Application::getApplicationID)
+                    .withIndex("applicant", Application::getApplicantNRIC)
+                    .withIndex("project", Application::getProjectId)
+                    .withIndex("status", application -> statusKey(application.getApplicationStatus()))
+                    .withIndex("projectStatus", application ->
+                            projectStatusKey(application.getProjectId(), application.getApplicationStatus()));
+
+    static {
+        // Status changes happen on the stored instances, so the indexes are refreshed as they happen.
+        Application.setChangeListener(applications::reindex);
     }
 
     // Singleton instance of the repository
     private static ApplicationRepository instance;
 
-    // List to store applications
-    private static List<Application> applications = new ArrayList<>();
-
     // Private constructor to prevent instantiation
     private ApplicationRepository() {}
 
@@ -68,80 +225,28 @@ public class ApplicationRepository {
     /**
      * Saves all applications to the CSV file.
      * <p>
-     * Each application is written in CSV format, including details like application ID, applicant NRIC,
-     * selected flat type, status, and status history.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
     public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Application application : applications) {
-            Map<String, String> record = new HashMap<>();
-            record.put("ApplicationID", application.getApplicationID());
-            record.put("ApplicantNRIC", application.getApplicantNRIC());
-            record.put("ProjectID", application.getProjectId());
-            record.put("SelectedFlatType", application.getSelectedFlatType().toString());
-            record.put("ApplicationStatus", application.getApplicationStatus().getKey());
-            record.put("IsWithdrawalRequested", String.valueOf(application.isWithdrawalRequested()));
-            record.put("ApplicationDate", DateTimeUtils.formatDateTime(application.getApplicationDate()));
-            record.put("ApprovedBy", application.getApprovedBy() != null ? application.getApprovedBy() : "");
-            
-            String statusHistory = application.getApplicationStatusHistory().entrySet().stream()
-                .sorted(Map.Entry.comparingByValue())
-                .map(entry -> entry.getKey().getKey() + ";" + DateTimeUtils.formatDateTime(entry.getValue()))
-                .collect(Collectors.joining("/"));
-            record.put("ApplicationStatusHistory", statusHistory);
-
-            records.add(record);
-        }
+        applications.saveAll();
+    }
 
-        try {
-            CsvWriter.write(new ApplicationCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving applications: " + e.getMessage());
-        }
+    /**
+     * Loads applications from the snapshot if it is current, otherwise from the CSV file.
+     */
+    public static void load() {
+        applications.load();
     }
 
     /**
-     * Loads applications from the CSV file and populates the applications list.
+     * Writes a binary snapshot of all applications so the next start can skip parsing the CSV file.
      * <p>
-     * Each record in the CSV is used to create an application object, including parsing status history and other fields.
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
      * </p>
      */
-    public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new ApplicationCsvConfig());
-            applications = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                Map<ApplicationStatus, LocalDateTime> statusHistory = new HashMap<>();
-                if (record.get("ApplicationStatusHistory") != null && !record.get("ApplicationStatusHistory").isEmpty()) {
-                    Arrays.stream(record.get("ApplicationStatusHistory").split("/"))
-                            .forEach(entry -> {
-                                String[] parts = entry.split(";");
-                                statusHistory.put(
-                                        ApplicationStatus.valueOf(parts[0]),
-                                        DateTimeUtils.parseDateTime(parts[1])
-                                );
-                            });
-                }
-
-                Application application = new Application(
-                        record.get("ApplicationID"),
-                        record.get("ApplicantNRIC"),
-                        record.get("ProjectID"),
-                        FlatType.valueOf(record.get("SelectedFlatType")),
-                        ApplicationStatus.valueOf(record.get("ApplicationStatus")),
-                        Boolean.parseBoolean(record.get("IsWithdrawalRequested")),
-                        DateTimeUtils.parseDateTime(record.get("ApplicationDate")),
-                        record.get("ApprovedBy").isEmpty() ? null : record.get("ApprovedBy"),
-                        statusHistory
-                );
-                applications.add(application);
-            }
-            System.out.println("Loaded " + applications.size() + " applications from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading applications: " + e.getMessage());
-        }
+    public static void saveSnapshot() {
+        applications.saveSnapshot();
     }
 
     /**
@@ -150,16 +255,21 @@ public class ApplicationRepository {
      * @return a list of all applications
      */
     public static List<Application> getAll() {
-        return applications;
+        return applications.getAll();
     }
 
     /**
      * Adds a new application to the repository.
      *
      * @param application the application to be added
+     * @return false if an application with the same ID already exists, in which case it is not added
      */
-    public static void add(Application application) {
-        applications.add(application);
+    public static boolean add(Application application) {
+        if (!applications.add(application)) {
+            System.err.println("Application with ID " + application.getApplicationID() + " already exists. Cannot add duplicate.");
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -169,10 +279,7 @@ public class ApplicationRepository {
      * @return the application with the specified ID, or {@code null} if not found
      */
     public static Application getById(String applicationId) {
-        return applications.stream()
-                .filter(app -> app.getApplicationID().equals(applicationId))
-                .findFirst()
-                .orElse(null);
+        return applications.get(applicationId);
     }
 
     /**
@@ -182,9 +289,7 @@ public class ApplicationRepository {
      * @return a list of applications submitted by the specified applicant
      */
     public static List<Application> getByApplicant(String applicantNRIC) {
-        return applications.stream()
-                .filter(app -> app.getApplicantNRIC().equals(applicantNRIC))
-                .collect(Collectors.toList());
+        return applications.getBy("applicant", applicantNRIC);
     }
 
     /**
@@ -194,9 +299,7 @@ public class ApplicationRepository {
      * @return a list of applications for the specified project
      */
     public static List<Application> getByProject(String projectId) {
-        return applications.stream()
-                .filter(app -> app.getProjectId().equals(projectId))
-                .collect(Collectors.toList());
+        return applications.getBy("project", projectId);
     }
 
     /**
@@ -206,9 +309,22 @@ public class ApplicationRepository {
      * @return a list of applications with the specified status
      */
     public static List<Application> getByStatus(ApplicationStatus status) {
-        return applications.stream()
-                .filter(app -> app.getApplicationStatus() == status)
-                .collect(Collectors.toList());
+        return applications.getBy("status", statusKey(status));
+    }
+
+    /**
+     * Retrieves a list of applications for a specific project with any of the given application statuses.
+     *
+     * @param projectId the project ID
+     * @param statuses  the application statuses to include
+     * @return a list of applications for the project with one of the specified statuses
+     */
+    public static List<Application> getByProjectAndStatus(String projectId, ApplicationStatus... statuses) {
+        List<String> keys = new ArrayList<>(statuses.length);
+        for (ApplicationStatus status : statuses) {
+            keys.add(projectStatusKey(projectId, status));
+        }
+        return applications.getByAny("projectStatus", keys);
     }
 
     /**
@@ -219,7 +335,19 @@ public class ApplicationRepository {
      * @return {@code true} if the applicant has applied for the project, {@code false} otherwise
      */
     public static boolean hasApplication(Applicant applicant, String projectId) {
-        return getByProject(projectId).stream()
-                .anyMatch(app -> app.getApplicantNRIC().equals(applicant.getUserNRIC()));
+        for (Application application : getByApplicant(applicant.getUserNRIC())) {
+            if (application.getProjectId().equals(projectId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String statusKey(ApplicationStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    private static String projectStatusKey(String projectId, ApplicationStatus status) {
+        return projectId != null && status != null ? projectId + "/" + status.name() : null;
     }
 }
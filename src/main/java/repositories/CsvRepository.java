@@ -0,0 +1,691 @@
+package repositories;
+
+import interfaces.IBaseRepository;
+import interfaces.ICsvCodec;
+import interfaces.ICsvConfig;
+import utils.CsvReader;
+import utils.CsvRecord;
+import utils.CsvRecordReader;
+import utils.CsvWriter;
+import utils.Snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Generic CSV-backed repository with a primary key index and optional secondary indexes.
+ * <p>
+ * Items are kept in file order in a list, alongside a hash index from primary key to item, so
+ * lookups by key are O(1). Secondary indexes map a derived key (e.g. a project ID) to every item
+ * with that key and are kept up to date on {@link #add}, {@link #update} and {@link #remove}.
+ * An item whose indexed fields are changed in place must be passed to {@link #update} or
+ * {@link #reindex} for its secondary indexes to follow.
+ * </p>
+ * <p>
+ * Rows are converted by an {@link ICsvCodec}. Loading prefers a valid {@link Snapshot}, and all
+ * writes go through {@link WriteBehind}. New items are appended to the file instead of rewriting
+ * it when {@link #appendOnAdd()} is set.
+ * </p>
+ * <p>
+ * The static repositories delegate to an instance of this class, keeping their public API.
+ * All methods are thread-safe. Writes take a {@link StampedLock} exclusively; key lookups read a
+ * {@link ConcurrentHashMap} without locking, and lists are handed out as immutable snapshots
+ * cached until the next write, so repeated reads neither copy nor wait on each other. Key and index functions must not call
+ * back into the repository.
+ * </p>
+ *
+ * @param <T> the type of items in the repository
+ */
+public class CsvRepository<T> implements IBaseRepository<T> {
+    private final String name;
+    private final ICsvConfig config;
+    private final ICsvCodec<T> codec;
+    private final Function<T, String> primaryKey;
+    private final Map<String, SecondaryIndex> indexes = new LinkedHashMap<>();
+    private final WriteBehind.Target<T> persistence;
+    private volatile boolean appendOnAdd;
+
+    private final StampedLock lock = new StampedLock();
+    private final List<T> items = new ArrayList<>();
+    private final Map<String, T> byKey = new ConcurrentHashMap<>();
+    private final Map<String, Long> positions = new HashMap<>();
+    private long nextPosition;
+    private volatile List<T> snapshot;
+
+    /**
+     * A secondary index from derived keys to the items that have them, each bucket kept in file order.
+     */
+    private class SecondaryIndex {
+        private final Function<T, Collection<String>> keys;
+        private final Map<String, List<T>> buckets = new HashMap<>();
+        private final Map<String, Collection<String>> indexedUnder = new HashMap<>();
+        private final Map<String, List<T>> snapshots = new ConcurrentHashMap<>();
+
+        private SecondaryIndex(Function<T, Collection<String>> keys) {
+            this.keys = keys;
+        }
+
+        private void add(String primaryKey, T item) {
+            Collection<String> itemKeys = keys.apply(item);
+            if (itemKeys == null || itemKeys.isEmpty()) {
+                return;
+            }
+            itemKeys = List.copyOf(itemKeys);
+            indexedUnder.put(primaryKey, itemKeys);
+            for (String key : itemKeys) {
+                insertInOrder(buckets.computeIfAbsent(key, k -> new ArrayList<>()), item);
+                snapshots.remove(key);
+            }
+        }
+
+        private void remove(String primaryKey, T item) {
+            Collection<String> itemKeys = indexedUnder.remove(primaryKey);
+            if (itemKeys == null) {
+                return;
+            }
+            for (String key : itemKeys) {
+                List<T> bucket = buckets.get(key);
+                if (bucket != null) {
+                    removeIdentical(bucket, item);
+                    if (bucket.isEmpty()) {
+                        buckets.remove(key);
+                    }
+                }
+                snapshots.remove(key);
+            }
+        }
+
+        /**
+         * Re-files an item under its current keys, skipping the work if they are unchanged.
+         */
+        private void refresh(String primaryKey, T existing, T item) {
+            Collection<String> itemKeys = keys.apply(item);
+            Collection<String> previous = indexedUnder.get(primaryKey);
+            if (existing == item && previous != null && itemKeys != null && previous.equals(List.copyOf(itemKeys))) {
+                return;
+            }
+            remove(primaryKey, existing);
+            add(primaryKey, item);
+        }
+
+        /**
+         * Gets an immutable copy of a bucket, cached until the bucket next changes.
+         * Must be called while holding the read or write lock.
+         */
+        private List<T> snapshotOf(String key) {
+            List<T> cached = snapshots.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            List<T> bucket = buckets.get(key);
+            if (bucket == null) {
+                return List.of();
+            }
+            List<T> copy = List.copyOf(bucket);
+            snapshots.put(key, copy);
+            return copy;
+        }
+
+        private void clear() {
+            buckets.clear();
+            indexedUnder.clear();
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * Creates an empty repository. Call {@link #load()} to read its file.
+     *
+     * @param name       the plural item name used in log messages, e.g. "users"
+     * @param config     the CSV file path and headers
+     * @param codec      converts items to and from rows
+     * @param primaryKey extracts the unique key of an item; must not change while the item is stored
+     */
+    public CsvRepository(String name, ICsvConfig config, ICsvCodec<T> codec, Function<T, String> primaryKey) {
+        this.name = name;
+        this.config = config;
+        this.codec = codec;
+        this.primaryKey = primaryKey;
+        this.persistence = WriteBehind.register(name, this::writeAll, this::appendAll);
+    }
+
+    /**
+     * Declares a secondary index on a single derived key. Items whose key is {@code null} are not indexed.
+     *
+     * @param indexName the name used with {@link #getBy}
+     * @param key       extracts the indexed key from an item
+     * @return this repository, for chaining
+     */
+    public CsvRepository<T> withIndex(String indexName, Function<T, String> key) {
+        return withMultiIndex(indexName, item -> {
+            String value = key.apply(item);
+            return value != null ? List.of(value) : List.of();
+        });
+    }
+
+    /**
+     * Declares a secondary index under which an item may appear for several keys, e.g. one per applied project.
+     *
+     * @param indexName the name used with {@link #getBy}
+     * @param keys      extracts the indexed keys from an item
+     * @return this repository, for chaining
+     */
+    public CsvRepository<T> withMultiIndex(String indexName, Function<T, Collection<String>> keys) {
+        long stamp = lock.writeLock();
+        try {
+            SecondaryIndex index = new SecondaryIndex(keys);
+            for (T item : items) {
+                index.add(primaryKey.apply(item), item);
+            }
+            indexes.put(indexName, index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return this;
+    }
+
+    /**
+     * Makes {@link #add} append the new row to the file instead of rewriting it.
+     *
+     * @return this repository, for chaining
+     */
+    public CsvRepository<T> appendOnAdd() {
+        this.appendOnAdd = true;
+        return this;
+    }
+
+    /**
+     * Loads the items from the snapshot if it is current, otherwise from the CSV file.
+     * Rows the codec rejects or fails on are skipped and logged, as are duplicate keys.
+     */
+    @Override
+    public void load() {
+        List<T> cached = Snapshot.load(config, codec::readSnapshot);
+        if (cached != null) {
+            replaceAll(cached);
+            System.out.println("Loaded " + size() + " " + name + " from snapshot.");
+            return;
+        }
+
+        List<T> loaded = new ArrayList<>();
+        try (CsvRecordReader records = CsvReader.open(config)) {
+            for (CsvRecord record : records) {
+                try {
+                    T item = codec.decode(record);
+                    if (item != null) {
+                        loaded.add(item);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Error parsing " + name + " record " + record.get(0) + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error loading " + name + ": " + e.getMessage());
+            replaceAll(List.of());
+            return;
+        }
+
+        replaceAll(loaded);
+        System.out.println("Loaded " + size() + " " + name + " from CSV.");
+    }
+
+    private void replaceAll(List<T> loaded) {
+        long stamp = lock.writeLock();
+        try {
+            items.clear();
+            positions.clear();
+            nextPosition = 0;
+            snapshot = null;
+            for (SecondaryIndex index : indexes.values()) {
+                index.clear();
+            }
+
+            Map<String, T> loadedByKey = new HashMap<>();
+            for (T item : loaded) {
+                String key = primaryKey.apply(item);
+                if (key == null) {
+                    System.err.println("Missing key in " + name + ", skipping");
+                    continue;
+                }
+                if (loadedByKey.putIfAbsent(key, item) != null) {
+                    System.err.println("Duplicate key in " + name + ", skipping: " + key);
+                    continue;
+                }
+                items.add(item);
+                positions.put(key, nextPosition++);
+                for (SecondaryIndex index : indexes.values()) {
+                    index.add(key, item);
+                }
+            }
+            // Replaced entry by entry, so lock-free lookups of keys kept across a reload never miss
+            byKey.putAll(loadedByKey);
+            byKey.keySet().retainAll(loadedByKey.keySet());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets all items in file order.
+     * <p>
+     * The list is an immutable snapshot shared between callers until the next write, so
+     * repeated calls do not copy the repository.
+     * </p>
+     *
+     * @return an unmodifiable list of all items
+     */
+    @Override
+    public List<T> getAll() {
+        List<T> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.readLock();
+        try {
+            // Published under the read lock, so a writer cannot clear it in between.
+            current = snapshot;
+            if (current == null) {
+                current = List.copyOf(items);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Replaces the contents of the repository and saves them.
+     *
+     * @param newItems the items to store
+     */
+    @Override
+    public void saveAll(List<T> newItems) {
+        replaceAll(newItems);
+        saveAll();
+    }
+
+    /**
+     * Saves all items to the CSV file, right away or on the next {@link WriteBehind} flush.
+     */
+    public void saveAll() {
+        persistence.markDirty();
+    }
+
+    /**
+     * Writes a binary snapshot of all items. Call this after the CSV file has been saved.
+     */
+    public void saveSnapshot() {
+        try {
+            Snapshot.save(config, getAll(), codec::writeSnapshot);
+        } catch (IOException e) {
+            System.err.println("Error saving " + name + " snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of items.
+     *
+     * @return the item count
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = items.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = items.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Looks up an item by primary key.
+     *
+     * @param key the primary key
+     * @return the item, or {@code null} if there is none
+     */
+    public T get(String key) {
+        return key != null ? byKey.get(key) : null;
+    }
+
+    /**
+     * Checks whether an item with the given primary key exists.
+     *
+     * @param key the primary key
+     * @return true if the key is present
+     */
+    public boolean contains(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Looks up all items with the given key in a secondary index.
+     *
+     * @param indexName the index declared with {@link #withIndex} or {@link #withMultiIndex}
+     * @param key       the indexed key
+     * @return an unmodifiable list of matching items in file order, empty if there are none
+     * @throws IllegalArgumentException if no such index was declared
+     */
+    public List<T> getBy(String indexName, String key) {
+        long stamp = lock.readLock();
+        try {
+            return index(indexName).snapshotOf(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks up all items with any of the given keys in a secondary index.
+     *
+     * @param indexName the index declared with {@link #withIndex} or {@link #withMultiIndex}
+     * @param keys      the indexed keys
+     * @return a new list of matching items in file order, each appearing once
+     * @throws IllegalArgumentException if no such index was declared
+     */
+    public List<T> getByAny(String indexName, Collection<String> keys) {
+        long stamp = lock.readLock();
+        try {
+            SecondaryIndex index = index(indexName);
+            Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<T> matches = new ArrayList<>();
+            for (String key : keys) {
+                List<T> bucket = index.buckets.get(key);
+                if (bucket != null) {
+                    for (T item : bucket) {
+                        if (seen.add(item)) {
+                            matches.add(item);
+                        }
+                    }
+                }
+            }
+            matches.sort(Comparator.comparingLong(this::positionOf));
+            return matches;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets all items matching a predicate, scanning the current snapshot without holding the lock.
+     *
+     * @param predicate the condition to test
+     * @return a new list of matching items in file order
+     */
+    public List<T> filter(Predicate<T> predicate) {
+        List<T> matches = new ArrayList<>();
+        for (T item : getAll()) {
+            if (predicate.test(item)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the first item matching a predicate.
+     *
+     * @param predicate the condition to test
+     * @return the first match in file order, or {@code null}
+     */
+    public T find(Predicate<T> predicate) {
+        for (T item : getAll()) {
+            if (predicate.test(item)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an item and saves it.
+     *
+     * @param item the item to add
+     * @return false if an item with the same primary key already exists, or the item has no key,
+     *         in which case nothing changes
+     */
+    public boolean add(T item) {
+        String key = primaryKey.apply(item);
+        if (key == null) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (byKey.putIfAbsent(key, item) != null) {
+                return false;
+            }
+            items.add(item);
+            positions.put(key, nextPosition++);
+            snapshot = null;
+            for (SecondaryIndex index : indexes.values()) {
+                index.add(key, item);
+            }
+            if (appendOnAdd) {
+                // Queued under the lock, so a rewrite that already includes the item drops it again
+                persistence.append(item);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (appendOnAdd) {
+            persistence.appended();
+        } else {
+            persistence.markDirty();
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the stored item that has the same primary key, refreshes its indexes and saves.
+     * Passing the stored instance itself is how in-place changes are saved.
+     *
+     * @param item the updated item
+     * @return false if no item with that key exists, in which case nothing changes
+     */
+    public boolean update(T item) {
+        String key = primaryKey.apply(item);
+        if (key == null) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            T existing = byKey.get(key);
+            if (existing == null) {
+                return false;
+            }
+            if (existing != item) {
+                items.set(indexOfIdentical(items, existing), item);
+                byKey.put(key, item);
+                snapshot = null;
+            }
+            for (SecondaryIndex index : indexes.values()) {
+                index.refresh(key, existing, item);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        persistence.markDirty();
+        return true;
+    }
+
+    /**
+     * Refreshes the secondary index entries of an item after its indexed fields changed in place,
+     * without saving.
+     *
+     * @param item the stored item
+     */
+    public void reindex(T item) {
+        String key = primaryKey.apply(item);
+        if (get(key) != item) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (byKey.get(key) != item) {
+                return;
+            }
+            for (SecondaryIndex index : indexes.values()) {
+                index.refresh(key, item, item);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Refreshes the secondary index entries of every item, for callers that change indexed fields
+     * in place and save without saying which items changed.
+     */
+    public void reindexAll() {
+        long stamp = lock.writeLock();
+        try {
+            for (T item : items) {
+                String key = primaryKey.apply(item);
+                for (SecondaryIndex index : indexes.values()) {
+                    index.refresh(key, item, item);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an item and saves.
+     *
+     * @param item the item to remove
+     * @return false if the item was not stored
+     */
+    public boolean remove(T item) {
+        return removeByKey(primaryKey.apply(item));
+    }
+
+    /**
+     * Removes the item with the given primary key and saves.
+     *
+     * @param key the primary key
+     * @return false if no item has that key
+     */
+    public boolean removeByKey(String key) {
+        long stamp = lock.writeLock();
+        try {
+            T existing = key != null ? byKey.remove(key) : null;
+            if (existing == null) {
+                return false;
+            }
+            removeIdentical(items, existing);
+            positions.remove(key);
+            snapshot = null;
+            for (SecondaryIndex index : indexes.values()) {
+                index.remove(key, existing);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        persistence.markDirty();
+        return true;
+    }
+
+    private SecondaryIndex index(String indexName) {
+        SecondaryIndex index = indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("No index " + indexName + " on " + name);
+        }
+        return index;
+    }
+
+    private void writeAll() {
+        List<T> all;
+        long stamp = lock.readLock();
+        try {
+            // Taken together with dropping the queued appends, which these rows already include
+            all = snapshot;
+            if (all == null) {
+                all = List.copyOf(items);
+                snapshot = all;
+            }
+            persistence.discardAppends();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        try {
+            CsvWriter.write(config, all, codec::encode);
+        } catch (IOException e) {
+            System.err.println("Error saving " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void appendAll(List<T> batch) {
+        try {
+            CsvWriter.append(config, batch, codec::encode);
+        } catch (IOException e) {
+            System.err.println("Error appending " + name + ", rewriting file: " + e.getMessage());
+            writeAll();
+        }
+    }
+
+    /**
+     * Inserts an item into a bucket by file position. Items are usually added in order, so this
+     * is normally an append.
+     */
+    private void insertInOrder(List<T> bucket, T item) {
+        long position = positionOf(item);
+        int high = bucket.size();
+        if (high == 0 || positionOf(bucket.get(high - 1)) < position) {
+            bucket.add(item);
+            return;
+        }
+        int low = 0;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positionOf(bucket.get(mid)) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        bucket.add(low, item);
+    }
+
+    private long positionOf(T item) {
+        Long position = positions.get(primaryKey.apply(item));
+        return position != null ? position : Long.MAX_VALUE;
+    }
+
+    private static <T> int indexOfIdentical(List<T> list, T item) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> void removeIdentical(List<T> list, T item) {
+        int index = indexOfIdentical(list, item);
+        if (index >= 0) {
+            list.remove(index);
+        }
+    }
+}
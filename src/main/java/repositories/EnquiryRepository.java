@@ -1,17 +1,20 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import models.Enquiry;
 import models.enums.EnquiryStatus;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
 import utils.DateTimeUtils;
+import utils.NricCodec;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository class responsible for managing enquiry data.
@@ -36,25 +39,44 @@ public class EnquiryRepository {
             return List.of("EnquiryID", "ProjectID", "ApplicantNRIC", "Query",
                     "Response", "EnquiryStatus", "EnquiryDate", "LastUpdated", "RespondedBy");
         }
-    }
-
-    // List to store enquiries
-    private static List<Enquiry> enquiries = new ArrayList<>();
 
-    // Private constructor to prevent instantiation
-    private EnquiryRepository() {}
+        @Override
+        public boolean isParallelLoad() {
+            return true;
+        }
+    }
 
     /**
-     * Saves all enquiries to the CSV file.
-     * <p>
-     * Each enquiry is written in CSV format, including details such as enquiry ID, project ID,
-     * applicant NRIC, query, response, and status.
-     * </p>
+     * Converts enquiries to and from CSV rows and snapshot entries.
      */
-    public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Enquiry enquiry : enquiries) {
-            Map<String, String> record = new HashMap<>();
+    private static class EnquiryCodec implements ICsvCodec<Enquiry> {
+        @Override
+        public Enquiry decode(CsvRecord record) {
+            String response = record.get("Response");
+            if (response != null && response.trim().isEmpty()) {
+                response = null;
+            }
+
+            String respondedBy = record.get("RespondedBy");
+            if (respondedBy != null && respondedBy.trim().isEmpty()) {
+                respondedBy = null;
+            }
+
+            return new Enquiry(
+                    record.get("EnquiryID"),
+                    NricCodec.intern(record.get("ApplicantNRIC")),
+                    record.get("ProjectID"),
+                    record.get("Query"),
+                    response,
+                    EnquiryStatus.valueOf(record.get("EnquiryStatus")),
+                    DateTimeUtils.parseDateTime(record.get("EnquiryDate")),
+                    DateTimeUtils.parseDateTime(record.get("LastUpdated")),
+                    NricCodec.intern(respondedBy)
+            );
+        }
+
+        @Override
+        public void encode(Enquiry enquiry, CsvRecord record) {
             record.put("EnquiryID", enquiry.getEnquiryID());
             record.put("ProjectID", enquiry.getProjectID());
             record.put("ApplicantNRIC", enquiry.getApplicantNRIC());
@@ -64,55 +86,81 @@ public class EnquiryRepository {
             record.put("EnquiryDate", DateTimeUtils.formatDateTime(enquiry.getEnquiryDate()));
             record.put("LastUpdated", DateTimeUtils.formatDateTime(enquiry.getLastUpdated()));
             record.put("RespondedBy", enquiry.getRespondedBy() != null ? enquiry.getRespondedBy() : "");
-            records.add(record);
         }
 
-        try {
-            CsvWriter.write(new EnquiryCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving enquiries: " + e.getMessage());
+        @Override
+        public void writeSnapshot(Enquiry enquiry, SnapshotOutput out) throws IOException {
+            out.writeString(enquiry.getEnquiryID());
+            out.writeString(enquiry.getApplicantNRIC());
+            out.writeString(enquiry.getProjectID());
+            out.writeString(enquiry.getQuery());
+            out.writeString(enquiry.getResponse());
+            out.writeEnum(enquiry.getEnquiryStatus());
+            out.writeDateTime(enquiry.getEnquiryDate());
+            out.writeDateTime(enquiry.getLastUpdated());
+            out.writeString(enquiry.getRespondedBy());
+        }
+
+        @Override
+        public Enquiry readSnapshot(SnapshotInput in) throws IOException {
+            String enquiryID = in.readString();
+            String applicantNRIC = NricCodec.intern(in.readString());
+            String projectID = in.readString();
+            String query = in.readString();
+            String response = in.readString();
+            EnquiryStatus status = in.readEnum(EnquiryStatus.class);
+            LocalDateTime enquiryDate = in.readDateTime();
+            LocalDateTime lastUpdated = in.readDateTime();
+            String respondedBy = NricCodec.intern(in.readString());
+
+            // Blank values load as null from the CSV, keep that the same here
+            return new Enquiry(
+                    enquiryID,
+                    applicantNRIC,
+                    projectID,
+                    query,
+                    response != null && response.trim().isEmpty() ? null : response,
+                    status,
+                    enquiryDate,
+                    lastUpdated,
+                    respondedBy != null && respondedBy.trim().isEmpty() ? null : respondedBy
+            );
         }
     }
 
+    private static final CsvRepository<Enquiry> enquiries =
+            new CsvRepository<>("enquiries", new EnquiryCsvConfig(), new EnquiryCodec(), Enquiry::getEnquiryID)
+                    .withIndex("project", Enquiry::getProjectID)
+                    .withIndex("applicant", Enquiry::getApplicantNRIC)
+                    .appendOnAdd();
+
+    private EnquiryRepository() {}
+
     /**
-     * Loads enquiries from the CSV file and populates the enquiries list.
+     * Saves all enquiries to the CSV file.
      * <p>
-     * Each record in the CSV is used to create an enquiry object, including parsing the response, status, and other fields.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
+    public static void saveAll() {
+        enquiries.saveAll();
+    }
+
+    /**
+     * Loads enquiries from the snapshot if it is current, otherwise from the CSV file.
+     */
     public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new EnquiryCsvConfig());
-            enquiries = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                String response = record.get("Response");
-                if (response != null && response.trim().isEmpty()) {
-                    response = null;
-                }
-
-                String respondedBy = record.get("RespondedBy");
-                if (respondedBy != null && respondedBy.trim().isEmpty()) {
-                    respondedBy = null;
-                }
-
-                Enquiry enquiry = new Enquiry(
-                        record.get("EnquiryID"),
-                        record.get("ApplicantNRIC"),
-                        record.get("ProjectID"),
-                        record.get("Query"),
-                        response,
-                        EnquiryStatus.valueOf(record.get("EnquiryStatus")),
-                        DateTimeUtils.parseDateTime(record.get("EnquiryDate")),
-                        DateTimeUtils.parseDateTime(record.get("LastUpdated")),
-                        respondedBy
-                );
-                enquiries.add(enquiry);
-            }
-            System.out.println("Loaded " + enquiries.size() + " enquiries from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading enquiries: " + e.getMessage());
-        }
+        enquiries.load();
+    }
+
+    /**
+     * Writes a binary snapshot of all enquiries so the next start can skip parsing the CSV file.
+     * <p>
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
+     * </p>
+     */
+    public static void saveSnapshot() {
+        enquiries.saveSnapshot();
     }
 
     /**
@@ -121,7 +169,7 @@ public class EnquiryRepository {
      * @return a list of all enquiries
      */
     public static List<Enquiry> getAll() {
-        return enquiries;
+        return enquiries.getAll();
     }
 
     /**
@@ -131,19 +179,31 @@ public class EnquiryRepository {
      * @return a list of enquiries for the specified project
      */
     public static List<Enquiry> getEnquiriesByProject(String projectId) {
-        return enquiries.stream()
-                .filter(enquiry -> enquiry.getProjectID().equals(projectId))
-                .collect(Collectors.toList());
+        return enquiries.getBy("project", projectId);
     }
 
     /**
-     * Adds a new enquiry to the repository.
+     * Retrieves a list of enquiries submitted by a specific applicant.
+     *
+     * @param applicantNRIC the NRIC of the applicant
+     * @return a list of enquiries submitted by the applicant
+     */
+    public static List<Enquiry> getEnquiriesByApplicant(String applicantNRIC) {
+        return enquiries.getBy("applicant", applicantNRIC);
+    }
+
+    /**
+     * Adds a new enquiry to the repository and appends it to the CSV file.
      *
      * @param enquiry the enquiry to be added
+     * @return false if an enquiry with the same ID already exists, in which case it is not added
      */
-    public static void add(Enquiry enquiry) {
-        enquiries.add(enquiry);
-        saveAll();
+    public static boolean add(Enquiry enquiry) {
+        if (!enquiries.add(enquiry)) {
+            System.err.println("Enquiry with ID " + enquiry.getEnquiryID() + " already exists. Cannot add duplicate.");
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -153,10 +213,7 @@ public class EnquiryRepository {
      * @return the enquiry with the specified ID, or {@code null} if not found
      */
     public static Enquiry getEnquiryById(String enquiryId) {
-        return enquiries.stream()
-                .filter(enquiry -> enquiry.getEnquiryID().equals(enquiryId))
-                .findFirst()
-                .orElse(null);
+        return enquiries.get(enquiryId);
     }
 
     /**
@@ -166,7 +223,6 @@ public class EnquiryRepository {
      */
     public static void delete(Enquiry enquiry) {
         enquiries.remove(enquiry);
-        saveAll();
     }
 
     /**
@@ -175,12 +231,6 @@ public class EnquiryRepository {
      * @param enquiry the enquiry to be updated
      */
     public static void update(Enquiry enquiry) {
-        for (int i = 0; i < enquiries.size(); i++) {
-            if (enquiries.get(i).getEnquiryID().equals(enquiry.getEnquiryID())) {
-                enquiries.set(i, enquiry);
-                break;
-            }
-        }
-        saveAll();
+        enquiries.update(enquiry);
     }
 }
@@ -1,16 +1,17 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import models.Manager;
 import models.User;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository class responsible for managing manager data.
@@ -36,67 +37,95 @@ public class ManagerRepository {
         }
     }
 
-    // List to store managers
-    private static List<Manager> managers = new ArrayList<>();
+    /**
+     * Converts managers to and from CSV rows and snapshot entries.
+     */
+    private static class ManagerCodec implements ICsvCodec<Manager> {
+        @Override
+        public Manager decode(CsvRecord record) {
+            // Get user data from UserRepository
+            User userData = UserRepository.getByNRIC(record.get("ManagerNRIC"));
+            if (userData == null) {
+                System.err.println("Manager NRIC not found in users.csv: " + record.get("ManagerNRIC"));
+                return null;
+            }
+
+            Manager manager = new Manager(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    record.get("CurrentProjectID")
+            );
+            manager.setMaritalStatus(userData.getMaritalStatus());
+            return manager;
+        }
+
+        @Override
+        public void encode(Manager manager, CsvRecord record) {
+            record.put("ManagerNRIC", manager.getUserNRIC());
+            record.put("CurrentProjectID", manager.getCurrentProjectID() != null ? manager.getCurrentProjectID() : "");
+        }
+
+        @Override
+        public void writeSnapshot(Manager manager, SnapshotOutput out) throws IOException {
+            out.writeString(manager.getUserNRIC());
+            out.writeString(manager.getCurrentProjectID());
+        }
+
+        @Override
+        public Manager readSnapshot(SnapshotInput in) throws IOException {
+            String nric = in.readString();
+            String projectId = in.readString();
+
+            User userData = UserRepository.getByNRIC(nric);
+            if (userData == null) {
+                System.err.println("Manager NRIC not found in users.csv: " + nric);
+                return null;
+            }
+
+            Manager manager = new Manager(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    projectId != null ? projectId : ""
+            );
+            manager.setMaritalStatus(userData.getMaritalStatus());
+            return manager;
+        }
+    }
+
+    private static final CsvRepository<Manager> managers =
+            new CsvRepository<>("managers", new ManagerCsvConfig(), new ManagerCodec(), Manager::getUserNRIC);
 
-    // Private constructor to prevent instantiation
     private ManagerRepository() {}
 
     /**
      * Saves all managers to the CSV file.
      * <p>
-     * Each manager is written with their NRIC and associated project ID.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
     public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Manager manager : managers) {
-            Map<String, String> record = new HashMap<>();
-            record.put("ManagerNRIC", manager.getUserNRIC());
-            record.put("CurrentProjectID", manager.getCurrentProjectID() != null ? manager.getCurrentProjectID() : "");
-            records.add(record);
-        }
+        managers.saveAll();
+    }
 
-        try {
-            CsvWriter.write(new ManagerCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving managers: " + e.getMessage());
-        }
+    /**
+     * Loads managers from the snapshot if it is current, otherwise from the CSV file.
+     */
+    public static void load() {
+        managers.load();
     }
 
     /**
-     * Loads managers from the CSV file and populates the managers list.
+     * Writes a binary snapshot of all managers so the next start can skip parsing the CSV file.
      * <p>
-     * Each record in the CSV is used to create a manager object, associating the manager with a project.
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
      * </p>
      */
-    public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new ManagerCsvConfig());
-            managers = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                // Get user data from UserRepository
-                User userData = UserRepository.getByNRIC(record.get("ManagerNRIC"));
-                if (userData == null) {
-                    System.err.println("Manager NRIC not found in users.csv: " + record.get("ManagerNRIC"));
-                    continue;
-                }
-
-                Manager manager = new Manager(
-                        userData.getUserNRIC(),
-                        userData.getName(),
-                        userData.getPassword(),
-                        userData.getAge(),
-                        record.get("CurrentProjectID")
-                );
-                manager.setMaritalStatus(userData.getMaritalStatus());
-                managers.add(manager);
-            }
-            System.out.println("Loaded " + managers.size() + " managers from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading managers: " + e.getMessage());
-        }
+    public static void saveSnapshot() {
+        managers.saveSnapshot();
     }
 
     /**
@@ -105,7 +134,7 @@ public class ManagerRepository {
      * @return a list of all managers
      */
     public static List<Manager> getAll() {
-        return managers;
+        return managers.getAll();
     }
 
     /**
@@ -124,10 +153,7 @@ public class ManagerRepository {
      * @return the manager with the specified NRIC, or {@code null} if not found
      */
     public static Manager getByNRIC(String nric) {
-        return managers.stream()
-                .filter(manager -> manager.getUserNRIC().equals(nric))
-                .findFirst()
-                .orElse(null);
+        return managers.get(nric);
     }
 
     /**
@@ -137,8 +163,6 @@ public class ManagerRepository {
      * @return a list of managers associated with the specified project
      */
     public static List<Manager> getByProject(String projectId) {
-        return managers.stream()
-                .filter(manager -> projectId.equals(manager.getCurrentProjectID()))
-                .collect(Collectors.toList());
+        return managers.filter(manager -> projectId.equals(manager.getCurrentProjectID()));
     }
 }
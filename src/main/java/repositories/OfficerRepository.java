@@ -1,16 +1,17 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import models.Officer;
 import models.User;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository class responsible for managing officer data.
@@ -32,83 +33,116 @@ public class OfficerRepository {
 
         @Override
         public List<String> getHeaders() {
-            return List.of("OfficerNRIC", "CurrentProjectID");
+            return List.of("OfficerNRIC", "CurrentProjectID", "AppliedProjects");
         }
     }
 
-    // List to store officers
-    private static List<Officer> officers = new ArrayList<>();
+    /**
+     * Converts officers to and from CSV rows and snapshot entries.
+     */
+    private static class OfficerCodec implements ICsvCodec<Officer> {
+        @Override
+        public Officer decode(CsvRecord record) {
+            // Get user data from UserRepository
+            User userData = UserRepository.getByNRIC(record.get("OfficerNRIC"));
+            if (userData == null) {
+                System.err.println("Officer NRIC not found in users.csv: " + record.get("OfficerNRIC"));
+                return null;
+            }
+
+            List<String> appliedProjects = new ArrayList<>();
+            if (record.get("AppliedProjects") != null && !record.get("AppliedProjects").isEmpty()) {
+                appliedProjects = Arrays.asList(record.get("AppliedProjects").split("/"));
+            }
+
+            Officer officer = new Officer(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    appliedProjects
+            );
+            officer.setMaritalStatus(userData.getMaritalStatus());
+
+            String projectId = record.get("CurrentProjectID");
+            if (projectId != null && !projectId.trim().isEmpty()) {
+                officer.setCurrentProjectID(projectId);
+            }
+
+            return officer;
+        }
+
+        @Override
+        public void encode(Officer officer, CsvRecord record) {
+            record.put("OfficerNRIC", officer.getUserNRIC());
+            record.put("CurrentProjectID", officer.getCurrentProjectID() != null ? officer.getCurrentProjectID() : "");
+            record.put("AppliedProjects", officer.getAppliedProjects() != null ? String.join("/", officer.getAppliedProjects()) : "");
+        }
+
+        @Override
+        public void writeSnapshot(Officer officer, SnapshotOutput out) throws IOException {
+            out.writeString(officer.getUserNRIC());
+            out.writeString(officer.getCurrentProjectID());
+            out.writeStrings(officer.getAppliedProjects());
+        }
+
+        @Override
+        public Officer readSnapshot(SnapshotInput in) throws IOException {
+            String nric = in.readString();
+            String projectId = in.readString();
+            List<String> appliedProjects = in.readStrings();
+
+            User userData = UserRepository.getByNRIC(nric);
+            if (userData == null) {
+                System.err.println("Officer NRIC not found in users.csv: " + nric);
+                return null;
+            }
+
+            Officer officer = new Officer(
+                    userData.getUserNRIC(),
+                    userData.getName(),
+                    userData.getPassword(),
+                    userData.getAge(),
+                    appliedProjects
+            );
+            officer.setMaritalStatus(userData.getMaritalStatus());
+            if (projectId != null && !projectId.trim().isEmpty()) {
+                officer.setCurrentProjectID(projectId);
+            }
+            return officer;
+        }
+    }
+
+    private static final CsvRepository<Officer> officers =
+            new CsvRepository<>("officers", new OfficerCsvConfig(), new OfficerCodec(), Officer::getUserNRIC);
 
-    // Private constructor to prevent instantiation
     private OfficerRepository() {}
 
     /**
      * Saves all officers to the CSV file.
      * <p>
-     * Each officer is written with their NRIC, associated project ID, and applied projects.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
     public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Officer officer : officers) {
-            Map<String, String> record = new HashMap<>();
-            record.put("OfficerNRIC", officer.getUserNRIC());
-            record.put("CurrentProjectID", officer.getCurrentProjectID() != null ? officer.getCurrentProjectID() : "");
-            record.put("AppliedProjects", String.join("/", officer.getAppliedProjects()));
-            records.add(record);
-        }
+        officers.saveAll();
+    }
 
-        try {
-            CsvWriter.write(new OfficerCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving officers: " + e.getMessage());
-        }
+    /**
+     * Loads officers from the snapshot if it is current, otherwise from the CSV file.
+     */
+    public static void load() {
+        officers.load();
     }
 
     /**
-     * Loads officers from the CSV file and populates the officers list.
+     * Writes a binary snapshot of all officers so the next start can skip parsing the CSV file.
      * <p>
-     * Each record in the CSV is used to create an officer object, associating the officer with their applied projects and current project.
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
      * </p>
      */
-    public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new OfficerCsvConfig());
-            officers = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                // Get user data from UserRepository
-                User userData = UserRepository.getByNRIC(record.get("OfficerNRIC"));
-                if (userData == null) {
-                    System.err.println("Officer NRIC not found in users.csv: " + record.get("OfficerNRIC"));
-                    continue;
-                }
-
-                List<String> appliedProjects = new ArrayList<>();
-                if (record.get("AppliedProjects") != null && !record.get("AppliedProjects").isEmpty()) {
-                    appliedProjects = Arrays.asList(record.get("AppliedProjects").split("/"));
-                }
-
-                Officer officer = new Officer(
-                        userData.getUserNRIC(),
-                        userData.getName(),
-                        userData.getPassword(),
-                        userData.getAge(),
-                        appliedProjects
-                );
-                officer.setMaritalStatus(userData.getMaritalStatus());
-
-                String projectId = record.get("CurrentProjectID");
-                if (projectId != null && !projectId.trim().isEmpty()) {
-                    officer.setCurrentProjectID(projectId);
-                }
-
-                officers.add(officer);
-            }
-            System.out.println("Loaded " + officers.size() + " officers from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading officers: " + e.getMessage());
-        }
+    public static void saveSnapshot() {
+        officers.saveSnapshot();
     }
 
     /**
@@ -117,7 +151,7 @@ public class OfficerRepository {
      * @return a list of all officers
      */
     public static List<Officer> getAll() {
-        return officers;
+        return officers.getAll();
     }
 
     /**
@@ -136,10 +170,7 @@ public class OfficerRepository {
      * @return the officer with the specified NRIC, or {@code null} if not found
      */
     public static Officer getByNRIC(String nric) {
-        return officers.stream()
-                .filter(officer -> officer.getUserNRIC().equals(nric))
-                .findFirst()
-                .orElse(null);
+        return officers.get(nric);
     }
 
     /**
@@ -149,9 +180,7 @@ public class OfficerRepository {
      * @return a list of officers associated with the specified project
      */
     public static List<Officer> getByProject(String projectId) {
-        return officers.stream()
-                .filter(officer -> projectId.equals(officer.getCurrentProjectID()))
-                .collect(Collectors.toList());
+        return officers.filter(officer -> projectId.equals(officer.getCurrentProjectID()));
     }
 
     /**
@@ -162,8 +191,7 @@ public class OfficerRepository {
      */
     public static boolean hasExistingProject(Officer officer) {
         String officerNRIC = officer.getUserNRIC();
-        boolean withinProjects = ProjectRepository.getAll().stream()
-                .anyMatch(project -> project.getOfficers().contains(officerNRIC));
+        boolean withinProjects = !ProjectRepository.getByOfficer(officerNRIC).isEmpty();
 
         boolean withinOfficer = getByNRIC(officerNRIC) != null && getByNRIC(officerNRIC).getCurrentProjectID() == null;
 
@@ -177,8 +205,7 @@ public class OfficerRepository {
      * @return {@code true} if the officer has an active application, {@code false} otherwise
      */
     public static boolean hasActiveApplication(Officer officer) {
-        boolean withinApplications = ApplicationRepository.getAll().stream()
-                .anyMatch(application -> application.getApplicantNRIC().equals(officer.getUserNRIC()));
+        boolean withinApplications = !ApplicationRepository.getByApplicant(officer.getUserNRIC()).isEmpty();
         return withinApplications;
     }
 }
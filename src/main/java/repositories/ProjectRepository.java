@@ -1,18 +1,24 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import models.Officer;
 import models.Project;
 import models.enums.FlatType;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
 import utils.DateTimeUtils;
+import utils.IntervalIndex;
+import utils.NricCodec;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository class responsible for managing project data.
@@ -22,6 +28,7 @@ import utils.DateTimeUtils;
  * </p>
  */
 public class ProjectRepository {
+    private static final FlatType[] FLAT_TYPES = FlatType.values();
 
     /**
      * Config class for reading and writing project data in CSV format.
@@ -41,38 +48,76 @@ public class ProjectRepository {
         }
     }
 
-    // List to store projects
-    private static List<Project> projects = new ArrayList<>();
-
-    // Private constructor to prevent instantiation
-    private ProjectRepository() {}
-
     /**
-     * Saves all projects to the CSV file.
-     * <p>
-     * Each project is written with its ID, manager NRIC, name, location, flat types, unit details, and other attributes like visibility and application dates.
-     * </p>
+     * Converts projects to and from CSV rows and snapshot entries.
      */
-    public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Project project : projects) {
-            Map<String, String> record = new HashMap<>();
+    private static class ProjectCodec implements ICsvCodec<Project> {
+        @Override
+        public Project decode(CsvRecord record) {
+            List<FlatType> flatTypes = Arrays.stream(record.get("FlatTypes").split("/"))
+                    .map(FlatType::valueOf)
+                    .collect(Collectors.toList());
+
+            List<Integer> units = Arrays.stream(record.get("FlatTypeUnits").split("/"))
+                    .map(Integer::parseInt)
+                    .collect(Collectors.toList());
+
+            List<Integer> prices = Arrays.stream(record.get("FlatTypePrices").split("/"))
+                    .map(Integer::parseInt)
+                    .collect(Collectors.toList());
+
+            List<String> applicants = new ArrayList<>();
+            if (!record.get("Applicants").isEmpty()) {
+                applicants = Arrays.asList(record.get("Applicants").split("/"));
+                applicants.replaceAll(NricCodec::intern);
+            }
+
+            List<String> officers = new ArrayList<>();
+            if (!record.get("Officers").isEmpty()) {
+                officers = Arrays.asList(record.get("Officers").split("/"));
+                officers.replaceAll(NricCodec::intern);
+            }
+
+            return new Project(
+                    record.get("ProjectID"),
+                    NricCodec.intern(record.get("ManagerNRIC")),
+                    record.get("ProjectName"),
+                    record.get("Location"),
+                    flatTypes,
+                    units,
+                    prices,
+                    DateTimeUtils.parseDateTime(record.get("ApplicationOpenDate")),
+                    DateTimeUtils.parseDateTime(record.get("ApplicationCloseDate")),
+                    Integer.parseInt(record.get("OfficerSlots")),
+                    Boolean.parseBoolean(record.get("IsVisible")),
+                    applicants,
+                    officers
+            );
+        }
+
+        @Override
+        public void encode(Project project, CsvRecord record) {
             record.put("ProjectID", project.getProjectID());
             record.put("ManagerNRIC", project.getManagerNRIC());
             record.put("ProjectName", project.getProjectName());
             record.put("Location", project.getLocation());
 
-            record.put("FlatTypes", project.getFlatTypes().stream()
-                    .map(FlatType::toString)
-                    .collect(Collectors.joining("/")));
-
-            record.put("FlatTypeUnits", project.getFlatTypeUnits().stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining("/")));
-
-            record.put("FlatTypePrices", project.getFlatTypeSellingPrice().stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining("/")));
+            StringBuilder flatTypes = new StringBuilder();
+            StringBuilder units = new StringBuilder();
+            StringBuilder prices = new StringBuilder();
+            project.forEachFlatType((flatType, available, price) -> {
+                if (flatTypes.length() > 0) {
+                    flatTypes.append('/');
+                    units.append('/');
+                    prices.append('/');
+                }
+                flatTypes.append(flatType.name());
+                units.append(available);
+                prices.append(price);
+            });
+            record.put("FlatTypes", flatTypes.toString());
+            record.put("FlatTypeUnits", units.toString());
+            record.put("FlatTypePrices", prices.toString());
 
             record.put("ApplicationOpenDate", DateTimeUtils.formatDateTime(project.getApplicationOpenDate()));
             record.put("ApplicationCloseDate", DateTimeUtils.formatDateTime(project.getApplicationCloseDate()));
@@ -80,73 +125,138 @@ public class ProjectRepository {
             record.put("IsVisible", String.valueOf(project.isVisible()));
             record.put("Applicants", String.join("/", project.getApplicants()));
             record.put("Officers", String.join("/", project.getOfficers()));
+        }
 
-            records.add(record);
+        @Override
+        public void writeSnapshot(Project project, SnapshotOutput out) throws IOException {
+            out.writeString(project.getProjectID());
+            out.writeString(project.getManagerNRIC());
+            out.writeString(project.getProjectName());
+            out.writeString(project.getLocation());
+
+            out.writeInt(project.getFlatTypeCount());
+            for (FlatType flatType : FLAT_TYPES) {
+                if (project.hasFlatType(flatType)) {
+                    out.writeEnum(flatType);
+                    out.writeInt(project.getAvailableUnits(flatType));
+                    out.writeInt(project.getFlatPrice(flatType));
+                }
+            }
+
+            out.writeDateTime(project.getApplicationOpenDate());
+            out.writeDateTime(project.getApplicationCloseDate());
+            out.writeInt(project.getOfficerSlots());
+            out.writeBoolean(project.isVisible());
+            out.writeStrings(project.getApplicants());
+            out.writeStrings(project.getOfficers());
         }
 
-        try {
-            CsvWriter.write(new ProjectCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving projects: " + e.getMessage());
+        @Override
+        public Project readSnapshot(SnapshotInput in) throws IOException {
+            String projectID = in.readString();
+            String managerNRIC = NricCodec.intern(in.readString());
+            String projectName = in.readString();
+            String location = in.readString();
+
+            int flatTypeCount = in.readInt();
+            List<FlatType> flatTypes = new ArrayList<>(flatTypeCount);
+            List<Integer> units = new ArrayList<>(flatTypeCount);
+            List<Integer> prices = new ArrayList<>(flatTypeCount);
+            for (int i = 0; i < flatTypeCount; i++) {
+                flatTypes.add(in.readEnum(FlatType.class));
+                units.add(in.readInt());
+                prices.add(in.readInt());
+            }
+
+            return new Project(
+                    projectID,
+                    managerNRIC,
+                    projectName,
+                    location,
+                    flatTypes,
+                    units,
+                    prices,
+                    in.readDateTime(),
+                    in.readDateTime(),
+                    in.readInt(),
+                    in.readBoolean(),
+                    internAll(in.readStrings()),
+                    internAll(in.readStrings())
+            );
         }
+
+        private static List<String> internAll(List<String> nrics) {
+            nrics.replaceAll(NricCodec::intern);
+            return nrics;
+        }
+    }
+
+    private static final CsvRepository<Project> projects =
+            new CsvRepository<>("projects", new ProjectCsvConfig(), new ProjectCodec(), Project::getProjectID)
+                    .withIndex("name", project -> nameKey(project.getProjectName()))
+                    .withIndex("manager", Project::getManagerNRIC)
+                    .withMultiIndex("officer", Project::getOfficers);
+
+    private static final IntervalIndex<Project> windows = new IntervalIndex<>();
+    private static final AtomicLong version = new AtomicLong();
+
+    static {
+        // Projects are edited in place, so the indexes and anything caching projects follow each change.
+        Project.setChangeListener(project -> {
+            projects.reindex(project);
+            if (getById(project.getProjectID()) == project) {
+                indexWindow(project);
+            }
+            version.incrementAndGet();
+        });
     }
 
+    private ProjectRepository() {}
+
     /**
-     * Loads projects from the CSV file and populates the projects list.
+     * Gets a counter that changes whenever a project is added, removed, updated or edited in place,
+     * so callers can tell whether something they derived from the projects is still current.
+     *
+     * @return the current version
+     */
+    public static long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Saves all projects to the CSV file.
      * <p>
-     * Each record in the CSV is used to create a project object, associating the project with its flat types, units, prices, officers, and applicants.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
+     * Projects may have been renamed or reassigned in place, so the name, manager and officer
+     * indexes are refreshed first.
      * </p>
      */
-    public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new ProjectCsvConfig());
-            projects = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                List<FlatType> flatTypes = Arrays.stream(record.get("FlatTypes").split("/"))
-                        .map(FlatType::valueOf)
-                        .collect(Collectors.toList());
-
-                List<Integer> units = Arrays.stream(record.get("FlatTypeUnits").split("/"))
-                        .map(Integer::parseInt)
-                        .collect(Collectors.toList());
-
-                List<Integer> prices = Arrays.stream(record.get("FlatTypePrices").split("/"))
-                        .map(Integer::parseInt)
-                        .collect(Collectors.toList());
-
-                List<String> applicants = new ArrayList<>();
-                if (!record.get("Applicants").isEmpty()) {
-                    applicants = Arrays.asList(record.get("Applicants").split("/"));
-                }
-
-                List<String> officers = new ArrayList<>();
-                if (!record.get("Officers").isEmpty()) {
-                    officers = Arrays.asList(record.get("Officers").split("/"));
-                }
+    public static void saveAll() {
+        projects.reindexAll();
+        projects.saveAll();
+        version.incrementAndGet();
+    }
 
-                Project project = new Project(
-                        record.get("ProjectID"),
-                        record.get("ManagerNRIC"),
-                        record.get("ProjectName"),
-                        record.get("Location"),
-                        flatTypes,
-                        units,
-                        prices,
-                        DateTimeUtils.parseDateTime(record.get("ApplicationOpenDate")),
-                        DateTimeUtils.parseDateTime(record.get("ApplicationCloseDate")),
-                        Integer.parseInt(record.get("OfficerSlots")),
-                        Boolean.parseBoolean(record.get("IsVisible")),
-                        applicants,
-                        officers
-                );
-
-                projects.add(project);
-            }
-            System.out.println("Loaded " + projects.size() + " projects from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading projects: " + e.getMessage());
+    /**
+     * Loads projects from the snapshot if it is current, otherwise from the CSV file.
+     */
+    public static void load() {
+        projects.load();
+        windows.clear();
+        for (Project project : projects.getAll()) {
+            indexWindow(project);
         }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Writes a binary snapshot of all projects so the next start can skip parsing the CSV file.
+     * <p>
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
+     * </p>
+     */
+    public static void saveSnapshot() {
+        projects.saveSnapshot();
     }
 
     /**
@@ -155,7 +265,7 @@ public class ProjectRepository {
      * @return a list of all projects
      */
     public static List<Project> getAll() {
-        return projects;
+        return projects.getAll();
     }
 
     /**
@@ -165,10 +275,7 @@ public class ProjectRepository {
      * @return the project with the specified ID, or {@code null} if not found
      */
     public static Project getById(String projectId) {
-        return projects.stream()
-                .filter(project -> project.getProjectID().equals(projectId))
-                .findFirst()
-                .orElse(null);
+        return projects.get(projectId);
     }
 
     /**
@@ -178,10 +285,82 @@ public class ProjectRepository {
      * @return the project with the specified name, or {@code null} if not found
      */
     public static Project getByName(String projectName) {
-        return projects.stream()
-                .filter(project -> project.getProjectName().equalsIgnoreCase(projectName))
-                .findFirst()
-                .orElse(null);
+        List<Project> matches = projects.getBy("name", nameKey(projectName));
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Retrieves a project by its exact, case-sensitive name.
+     *
+     * @param projectName the project name
+     * @return the first project with exactly that name, or {@code null} if not found
+     */
+    public static Project getByExactName(String projectName) {
+        for (Project project : projects.getBy("name", nameKey(projectName))) {
+            if (project.getProjectName().equals(projectName)) {
+                return project;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves all projects managed by a manager.
+     *
+     * @param managerNRIC the NRIC of the manager
+     * @return a list of the manager's projects
+     */
+    public static List<Project> getByManager(String managerNRIC) {
+        return projects.getBy("manager", managerNRIC);
+    }
+
+    /**
+     * Retrieves all projects an officer is assigned to.
+     *
+     * @param officerNRIC the NRIC of the officer
+     * @return a list of the officer's projects
+     */
+    public static List<Project> getByOfficer(String officerNRIC) {
+        return projects.getBy("officer", officerNRIC);
+    }
+
+    /**
+     * Retrieves the projects whose application period is open at an instant.
+     *
+     * @param time the instant
+     * @return the projects with {@code open < time < close}, in file order
+     */
+    public static List<Project> getOpenAt(LocalDateTime time) {
+        return windows.openAt(time);
+    }
+
+    /**
+     * Retrieves the projects whose application period overlaps a period.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     * @return the projects with {@code open < to} and {@code close > from}, in file order
+     */
+    public static List<Project> getOverlapping(LocalDateTime from, LocalDateTime to) {
+        return windows.overlapping(from, to);
+    }
+
+    /**
+     * Finds when the next application period opens.
+     *
+     * @param time the instant to search from
+     * @return the earliest open date at or after {@code time}, or null if there is none
+     */
+    public static LocalDateTime getNextOpening(LocalDateTime time) {
+        return windows.firstStartAtOrAfter(time);
+    }
+
+    private static void indexWindow(Project project) {
+        windows.put(project.getProjectID(), project, project.getApplicationOpenDate(), project.getApplicationCloseDate());
+    }
+
+    private static String nameKey(String projectName) {
+        return projectName != null ? projectName.toLowerCase(Locale.ROOT) : null;
     }
 
     /**
@@ -190,8 +369,10 @@ public class ProjectRepository {
      * @param project the project to be added
      */
     public static void add(Project project) {
-        projects.add(project);
-        saveAll();
+        if (projects.add(project)) {
+            indexWindow(project);
+        }
+        version.incrementAndGet();
     }
 
     /**
@@ -200,8 +381,9 @@ public class ProjectRepository {
      * @param projectId the ID of the project to be removed
      */
     public static void remove(String projectId) {
-        projects.removeIf(project -> project.getProjectID().equals(projectId));
-        saveAll();
+        projects.removeByKey(projectId);
+        windows.remove(projectId);
+        version.incrementAndGet();
     }
 
     /**
@@ -210,8 +392,10 @@ public class ProjectRepository {
      * @param project the project to be removed
      */
     public static void remove(Project project) {
-        projects.remove(project);
-        saveAll();
+        if (projects.remove(project)) {
+            windows.remove(project.getProjectID());
+        }
+        version.incrementAndGet();
     }
 
     /**
@@ -239,12 +423,9 @@ public class ProjectRepository {
      * @param project the updated project object
      */
     public static void update(Project project) {
-        for (int i = 0; i < projects.size(); i++) {
-            if (projects.get(i).getProjectID().equals(project.getProjectID())) {
-                projects.set(i, project);
-                break;
-            }
+        if (projects.update(project)) {
+            indexWindow(project);
         }
-        saveAll();
+        version.incrementAndGet();
     }
 }
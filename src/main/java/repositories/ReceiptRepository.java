@@ -1,21 +1,23 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 import models.Officer;
 import models.Project;
 import models.Receipt;
 import models.User;
 import models.enums.FlatType;
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
 import utils.DateTimeUtils;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
+import utils.UnitInventory;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository for managing receipts, including loading from and saving to CSV files.
@@ -41,21 +43,44 @@ public class ReceiptRepository {
         }
     }
 
-    private static List<Receipt> receipts = new ArrayList<>();
-
-    private ReceiptRepository() {}
-
     /**
-     * Saves all receipts to the CSV file.
-     * <p>
-     * The method iterates over all receipts, converts them to a map representation, and writes them
-     * to the CSV file using the configured CSV writer.
-     * </p>
+     * Converts receipts to and from CSV rows and snapshot entries.
      */
-    public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Receipt receipt : receipts) {
-            Map<String, String> record = new HashMap<>();
+    private static class ReceiptCodec implements ICsvCodec<Receipt> {
+        @Override
+        public Receipt decode(CsvRecord record) {
+            try {
+                User user = UserRepository.getByNRIC(record.get("ApplicantNRIC"));
+                Officer officer = OfficerRepository.getByNRIC(record.get("OfficerNRIC"));
+                Project project = ProjectRepository.getById(record.get("ProjectID"));
+
+                return new Receipt(
+                        record.get("ReceiptID"),
+                        user.getName(),
+                        user.getUserNRIC(),
+                        user.getAge(),
+                        user.getMaritalStatus(),
+                        FlatType.valueOf(record.get("FlatType")),
+                        Integer.parseInt(record.get("FlatPrice")),
+                        record.get("FlatUnitNumber"),
+                        project.getProjectName(),
+                        record.get("ProjectID"),
+                        project.getLocation(),
+                        DateTimeUtils.parseDateTime(record.get("BookingTimestamp")),
+                        officer
+                );
+            } catch (NumberFormatException e) {
+                System.err.println("Error parsing age for receipt " + record.get("ReceiptID") + ": " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error parsing enum/date/time for receipt " + record.get("ReceiptID") + ": " + e.getMessage());
+            } catch (Exception e) {
+                System.err.println("Error creating receipt object for ID " + record.get("ReceiptID") + ": " + e.getMessage());
+            }
+            return null;
+        }
+
+        @Override
+        public void encode(Receipt receipt, CsvRecord record) {
             record.put("ReceiptID", receipt.getReceiptId());
             record.put("ApplicantNRIC", receipt.getApplicantNRIC());
             record.put("FlatType", receipt.getFlatType().name());
@@ -64,90 +89,207 @@ public class ReceiptRepository {
             record.put("ProjectID", receipt.getProjectID());
             record.put("BookingTimestamp", DateTimeUtils.formatDateTime(receipt.getBookingTimestamp()));
             record.put("OfficerNRIC", receipt.getOfficer().getUserNRIC());
-            records.add(record);
         }
 
-        try {
-            CsvWriter.write(new ReceiptCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving receipts: " + e.getMessage());
+        @Override
+        public void writeSnapshot(Receipt receipt, SnapshotOutput out) throws IOException {
+            out.writeString(receipt.getReceiptId());
+            out.writeString(receipt.getApplicantNRIC());
+            out.writeEnum(receipt.getFlatType());
+            out.writeInt(receipt.getFlatPrice());
+            out.writeString(receipt.getUnitNumber());
+            out.writeString(receipt.getProjectID());
+            out.writeDateTime(receipt.getBookingTimestamp());
+            out.writeString(receipt.getOfficer().getUserNRIC());
+        }
+
+        @Override
+        public Receipt readSnapshot(SnapshotInput in) throws IOException {
+            String receiptId = in.readString();
+            String applicantNRIC = in.readString();
+            FlatType flatType = in.readEnum(FlatType.class);
+            int flatPrice = in.readInt();
+            String unitNumber = in.readString();
+            String projectID = in.readString();
+            LocalDateTime bookingTimestamp = in.readDateTime();
+            String officerNRIC = in.readString();
+
+            User user = UserRepository.getByNRIC(applicantNRIC);
+            Officer officer = OfficerRepository.getByNRIC(officerNRIC);
+            Project project = ProjectRepository.getById(projectID);
+            if (user == null || officer == null || project == null) {
+                System.err.println("Error creating receipt object for ID " + receiptId + ": unknown applicant, officer or project");
+                return null;
+            }
+
+            return new Receipt(
+                    receiptId,
+                    user.getName(),
+                    user.getUserNRIC(),
+                    user.getAge(),
+                    user.getMaritalStatus(),
+                    flatType,
+                    flatPrice,
+                    unitNumber,
+                    project.getProjectName(),
+                    projectID,
+                    project.getLocation(),
+                    bookingTimestamp,
+                    officer
+            );
         }
     }
 
+    private static final CsvRepository<Receipt> receipts =
+            new CsvRepository<>("receipts", new ReceiptCsvConfig(), new ReceiptCodec(), Receipt::getReceiptId)
+                    .withIndex("applicant", Receipt::getApplicantNRIC)
+                    .withIndex("project", Receipt::getProjectID)
+                    .appendOnAdd();
+
     /**
-     * Loads receipts from the CSV file.
+     * Units taken in each project, keyed by project ID. A unit is claimed here before its
+     * receipt exists, so two bookings of the same unit cannot both succeed.
+     */
+    private static final Map<String, UnitInventory> bookedUnits = new ConcurrentHashMap<>();
+
+    private ReceiptRepository() {}
+
+    /**
+     * Saves all receipts to the CSV file.
      * <p>
-     * This method reads the CSV file, parses each record, and converts it into a `Receipt` object.
-     * If any errors occur during parsing, they are logged.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
+    public static void saveAll() {
+        receipts.saveAll();
+    }
+
+    /**
+     * Loads receipts from the snapshot if it is current, otherwise from the CSV file.
+     */
     public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new ReceiptCsvConfig());
-            receipts = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                try {
-                    User user = UserRepository.getByNRIC(record.get("ApplicantNRIC"));
-                    Officer officer = OfficerRepository.getByNRIC(record.get("OfficerNRIC"));
-                    Project project = ProjectRepository.getById(record.get("ProjectID"));
-
-                    Receipt receipt = new Receipt(
-                            record.get("ReceiptID"),
-                            user.getName(),
-                            user.getUserNRIC(),
-                            user.getAge(),
-                            user.getMaritalStatus(),
-                            FlatType.valueOf(record.get("FlatType")),
-                            Integer.parseInt(record.get("FlatPrice")),
-                            record.get("FlatUnitNumber"),
-                            project.getProjectName(),
-                            record.get("ProjectID"),
-                            project.getLocation(),
-                            DateTimeUtils.parseDateTime(record.get("BookingTimestamp")),
-                            officer
-                    );
-                    receipts.add(receipt);
-                } catch (NumberFormatException e) {
-                    System.err.println("Error parsing age for receipt " + record.get("ReceiptID") + ": " + e.getMessage());
-                } catch (IllegalArgumentException e) {
-                    System.err.println("Error parsing enum/date/time for receipt " + record.get("ReceiptID") + ": " + e.getMessage());
-                } catch (Exception e) {
-                    System.err.println("Error creating receipt object for ID " + record.get("ReceiptID") + ": " + e.getMessage());
-                }
+        receipts.load();
+        bookedUnits.clear();
+        for (Receipt receipt : receipts.getAll()) {
+            if (!claimUnit(receipt.getProjectID(), receipt.getUnitNumber())) {
+                System.err.println("Receipt " + receipt.getReceiptId() + " has an invalid or already booked unit number: " + receipt.getUnitNumber());
             }
-            System.out.println("Loaded " + receipts.size() + " receipts from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading receipts: " + e.getMessage());
-            receipts = new ArrayList<>();
         }
     }
 
+    /**
+     * Writes a binary snapshot of all receipts so the next start can skip parsing the CSV file.
+     * <p>
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
+     * </p>
+     */
+    public static void saveSnapshot() {
+        receipts.saveSnapshot();
+    }
+
     /**
      * Retrieves all receipts.
      *
      * @return a list of all receipts
      */
     public static List<Receipt> getAll() {
-        return new ArrayList<>(receipts);
+        return receipts.getAll();
     }
 
     /**
      * Adds a new receipt to the repository.
      * <p>
      * The method first checks if the receipt already exists in the repository using its ID. If it does not
-     * exist, the receipt is added to the list and saved to the CSV file.
+     * exist, the receipt is added to the list and appended to the CSV file.
      * </p>
      *
      * @param receipt the receipt to add
      */
     public static void add(Receipt receipt) {
-        if (getById(receipt.getReceiptId()) == null) {
-            receipts.add(receipt);
-            saveAll();
-        } else {
+        if (!receipts.add(receipt)) {
             System.err.println("Receipt with ID " + receipt.getReceiptId() + " already exists. Cannot add duplicate.");
+            return;
+        }
+        claimUnit(receipt.getProjectID(), receipt.getUnitNumber());
+    }
+
+    /**
+     * Atomically claims a unit number in a project for a booking.
+     * <p>
+     * Exactly one of several concurrent claims for the same unit succeeds. Units with receipts are
+     * already claimed; a booking that fails after claiming should call {@link #releaseUnit}.
+     * </p>
+     *
+     * @param projectID  the project ID
+     * @param unitNumber the unit number
+     * @return {@code true} if the unit was free and is now claimed, {@code false} if it was already taken
+     *         or is not a valid unit number
+     */
+    public static boolean claimUnit(String projectID, String unitNumber) {
+        if (projectID == null) {
+            return false;
         }
+        return inventory(projectID).claim(unitNumber);
+    }
+
+    /**
+     * Atomically claims the lowest free unit in a project for a booking.
+     *
+     * @param projectID the project ID
+     * @return the unit number claimed, or {@code null} if every unit is taken
+     */
+    public static String claimNextFreeUnit(String projectID) {
+        return inventory(projectID).claimNextFree();
+    }
+
+    /**
+     * Finds the lowest free unit in a project, without claiming it.
+     *
+     * @param projectID the project ID
+     * @return the unit number, or {@code null} if every unit is taken
+     */
+    public static String getNextFreeUnit(String projectID) {
+        return inventory(projectID).nextFree();
+    }
+
+    /**
+     * Lists the free units on one floor of a project.
+     *
+     * @param projectID the project ID
+     * @param floor     the floor, from 1
+     * @return the free unit numbers on that floor
+     */
+    public static List<String> getFreeUnitsOnFloor(String projectID, int floor) {
+        return inventory(projectID).freeOnFloor(floor);
+    }
+
+    /**
+     * Releases a unit number claimed by a booking that did not go through.
+     *
+     * @param projectID  the project ID
+     * @param unitNumber the unit number
+     */
+    public static void releaseUnit(String projectID, String unitNumber) {
+        UnitInventory units = bookedUnits.get(projectID);
+        if (units != null) {
+            units.release(unitNumber);
+        }
+    }
+
+    /**
+     * Checks whether a unit number in a project is already taken.
+     *
+     * @param projectID  the project ID
+     * @param unitNumber the unit number
+     * @return {@code true} if the unit is booked or claimed
+     */
+    public static boolean isUnitBooked(String projectID, String unitNumber) {
+        UnitInventory units = bookedUnits.get(projectID);
+        return units != null && UnitInventory.isValidUnit(unitNumber) && !units.isFree(unitNumber);
+    }
+
+    private static UnitInventory inventory(String projectID) {
+        return bookedUnits.computeIfAbsent(projectID, id -> UnitInventory.full());
     }
 
     /**
@@ -157,10 +299,7 @@ public class ReceiptRepository {
      * @return the receipt with the specified ID, or null if no such receipt exists
      */
     public static Receipt getById(String receiptId) {
-        return receipts.stream()
-                .filter(receipt -> receipt.getReceiptId().equals(receiptId))
-                .findFirst()
-                .orElse(null);
+        return receipts.get(receiptId);
     }
 
     /**
@@ -170,9 +309,7 @@ public class ReceiptRepository {
      * @return a list of receipts for the specified applicant
      */
     public static List<Receipt> getByApplicantNRIC(String applicantNRIC) {
-        return receipts.stream()
-                .filter(receipt -> receipt.getApplicantNRIC().equals(applicantNRIC))
-                .collect(Collectors.toList());
+        return receipts.getBy("applicant", applicantNRIC);
     }
 
     /**
@@ -182,8 +319,6 @@ public class ReceiptRepository {
      * @return a list of receipts for the specified project
      */
     public static List<Receipt> getByProjectID(String projectID) {
-        return receipts.stream()
-                .filter(receipt -> receipt.getProjectID().equals(projectID))
-                .collect(Collectors.toList());
+        return receipts.getBy("project", projectID);
     }
 }
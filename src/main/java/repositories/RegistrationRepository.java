@@ -1,19 +1,21 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import models.Officer;
 import models.Registration;
 import models.User;
 import models.enums.RegistrationStatus;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
 import utils.DateTimeUtils;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository for managing registrations, including loading from and saving to CSV files.
@@ -40,21 +42,34 @@ public class RegistrationRepository {
         }
     }
 
-    private static List<Registration> registrations = new ArrayList<>();
-
-    private RegistrationRepository() {}
-
     /**
-     * Saves all registrations to the CSV file.
-     * <p>
-     * The method iterates over all registrations, converts them to a map representation, and writes them
-     * to the CSV file using the configured CSV writer.
-     * </p>
+     * Converts registrations to and from CSV rows and snapshot entries.
      */
-    public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (Registration registration : registrations) {
-            Map<String, String> record = new HashMap<>();
+    private static class RegistrationCodec implements ICsvCodec<Registration> {
+        @Override
+        public Registration decode(CsvRecord record) {
+            User officer = UserRepository.getByNRIC(record.get("OfficerNRIC"));
+            User approver = record.get("ApprovedBy") != null && !record.get("ApprovedBy").isEmpty() ?
+                    UserRepository.getByNRIC(record.get("ApprovedBy")) : null;
+
+            if (officer == null) {
+                System.err.println("Officer NRIC not found in users.csv: " + record.get("OfficerNRIC"));
+                return null;
+            }
+
+            return new Registration(
+                    record.get("RegistrationID"),
+                    officer,
+                    record.get("ProjectID"),
+                    RegistrationStatus.valueOf(record.get("RegistrationStatus")),
+                    DateTimeUtils.parseDateTime(record.get("RegistrationDate")),
+                    DateTimeUtils.parseDateTime(record.get("LastUpdated")),
+                    approver
+            );
+        }
+
+        @Override
+        public void encode(Registration registration, CsvRecord record) {
             record.put("RegistrationID", registration.getRegistrationID());
             record.put("OfficerNRIC", registration.getOfficer().getUserNRIC());
             record.put("ProjectID", registration.getProjectID());
@@ -62,53 +77,73 @@ public class RegistrationRepository {
             record.put("RegistrationDate", DateTimeUtils.formatDateTime(registration.getRegistrationDate()));
             record.put("LastUpdated", DateTimeUtils.formatDateTime(registration.getLastUpdated()));
             record.put("ApprovedBy", registration.getApprovedBy() != null ? registration.getApprovedBy().getUserNRIC() : "");
-            records.add(record);
         }
 
-        try {
-            CsvWriter.write(new RegistrationCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving registrations: " + e.getMessage());
+        @Override
+        public void writeSnapshot(Registration registration, SnapshotOutput out) throws IOException {
+            out.writeString(registration.getRegistrationID());
+            out.writeString(registration.getOfficer().getUserNRIC());
+            out.writeString(registration.getProjectID());
+            out.writeEnum(registration.getRegistrationStatus());
+            out.writeDateTime(registration.getRegistrationDate());
+            out.writeDateTime(registration.getLastUpdated());
+            out.writeString(registration.getApprovedBy() != null ? registration.getApprovedBy().getUserNRIC() : null);
+        }
+
+        @Override
+        public Registration readSnapshot(SnapshotInput in) throws IOException {
+            String registrationID = in.readString();
+            String officerNRIC = in.readString();
+            String projectID = in.readString();
+            RegistrationStatus status = in.readEnum(RegistrationStatus.class);
+            LocalDateTime registrationDate = in.readDateTime();
+            LocalDateTime lastUpdated = in.readDateTime();
+            String approverNRIC = in.readString();
+
+            User officer = UserRepository.getByNRIC(officerNRIC);
+            if (officer == null) {
+                System.err.println("Officer NRIC not found in users.csv: " + officerNRIC);
+                return null;
+            }
+            User approver = approverNRIC != null && !approverNRIC.isEmpty() ? UserRepository.getByNRIC(approverNRIC) : null;
+
+            return new Registration(registrationID, officer, projectID, status, registrationDate, lastUpdated, approver);
         }
     }
 
+    private static final CsvRepository<Registration> registrations =
+            new CsvRepository<>("registrations", new RegistrationCsvConfig(), new RegistrationCodec(), Registration::getRegistrationID)
+                    .withIndex("officer", registration -> registration.getOfficer().getUserNRIC())
+                    .withIndex("project", Registration::getProjectID)
+                    .appendOnAdd();
+
+    private RegistrationRepository() {}
+
     /**
-     * Loads registrations from the CSV file.
+     * Saves all registrations to the CSV file.
      * <p>
-     * This method reads the CSV file, parses each record, and converts it into a `Registration` object.
-     * If any errors occur during parsing, they are logged.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
+    public static void saveAll() {
+        registrations.saveAll();
+    }
+
+    /**
+     * Loads registrations from the snapshot if it is current, otherwise from the CSV file.
+     */
     public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new RegistrationCsvConfig());
-            registrations = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                User officer = UserRepository.getByNRIC(record.get("OfficerNRIC"));
-                User approver = record.get("ApprovedBy") != null && !record.get("ApprovedBy").isEmpty() ?
-                        UserRepository.getByNRIC(record.get("ApprovedBy")) : null;
-
-                if (officer == null) {
-                    System.err.println("Officer NRIC not found in users.csv: " + record.get("OfficerNRIC"));
-                    continue;
-                }
-
-                Registration registration = new Registration(
-                        record.get("RegistrationID"),
-                        officer,
-                        record.get("ProjectID"),
-                        RegistrationStatus.valueOf(record.get("RegistrationStatus")),
-                        DateTimeUtils.parseDateTime(record.get("RegistrationDate")),
-                        DateTimeUtils.parseDateTime(record.get("LastUpdated")),
-                        approver
-                );
-                registrations.add(registration);
-            }
-            System.out.println("Loaded " + registrations.size() + " registrations from CSV.");
-        } catch (IOException e) {
-            System.err.println("Error loading registrations: " + e.getMessage());
-        }
+        registrations.load();
+    }
+
+    /**
+     * Writes a binary snapshot of all registrations so the next start can skip parsing the CSV file.
+     * <p>
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
+     * </p>
+     */
+    public static void saveSnapshot() {
+        registrations.saveSnapshot();
     }
 
     /**
@@ -117,20 +152,24 @@ public class RegistrationRepository {
      * @return a list of all registrations
      */
     public static List<Registration> getAll() {
-        return registrations;
+        return registrations.getAll();
     }
 
     /**
      * Adds a new registration to the repository.
      * <p>
-     * The method adds the registration to the list and saves it to the CSV file.
+     * The method adds the registration to the list and appends it to the CSV file.
      * </p>
      *
      * @param registration the registration to add
+     * @return false if a registration with the same ID already exists, in which case it is not added
      */
-    public static void add(Registration registration) {
-        registrations.add(registration);
-        saveAll();
+    public static boolean add(Registration registration) {
+        if (!registrations.add(registration)) {
+            System.err.println("Registration with ID " + registration.getRegistrationID() + " already exists. Cannot add duplicate.");
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -140,10 +179,7 @@ public class RegistrationRepository {
      * @return the registration with the specified ID, or null if no such registration exists
      */
     public static Registration getById(String registrationId) {
-        return registrations.stream()
-                .filter(reg -> reg.getRegistrationID().equals(registrationId))
-                .findFirst()
-                .orElse(null);
+        return registrations.get(registrationId);
     }
 
     /**
@@ -153,8 +189,7 @@ public class RegistrationRepository {
      * @return a list of registrations for the specified officer
      */
     public static List<Registration> getByOfficer(Officer officer) {
-        return registrations.stream().filter(reg -> reg.getOfficer().getUserNRIC().equals(officer.getUserNRIC()))
-                .collect(Collectors.toList());
+        return registrations.getBy("officer", officer.getUserNRIC());
     }
 
     /**
@@ -164,9 +199,7 @@ public class RegistrationRepository {
      * @return a list of registrations for the specified project
      */
     public static List<Registration> getByProject(String projectId) {
-        return registrations.stream()
-                .filter(reg -> reg.getProjectID().equals(projectId))
-                .collect(Collectors.toList());
+        return registrations.getBy("project", projectId);
     }
 
     /**
@@ -176,26 +209,18 @@ public class RegistrationRepository {
      * @return a list of registrations with the specified status
      */
     public static List<Registration> getByStatus(RegistrationStatus status) {
-        return registrations.stream()
-                .filter(reg -> reg.getRegistrationStatus() == status)
-                .collect(Collectors.toList());
+        return registrations.filter(reg -> reg.getRegistrationStatus() == status);
     }
 
     /**
      * Updates an existing registration in the repository.
      * <p>
-     * The method searches for the registration by its ID and replaces it with the new one. The updated list is saved to the CSV file.
+     * The method looks up the registration by its ID and replaces it with the new one. The updated list is saved to the CSV file.
      * </p>
      *
      * @param registration the registration to update
      */
     public static void update(Registration registration) {
-        for (int i = 0; i < registrations.size(); i++) {
-            if (registrations.get(i).getRegistrationID().equals(registration.getRegistrationID())) {
-                registrations.set(i, registration);
-                saveAll();
-                return;
-            }
-        }
+        registrations.update(registration);
     }
 }
@@ -0,0 +1,138 @@
+package repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads repositories concurrently while respecting the dependencies between them.
+ * <p>
+ * Each repository is registered with the names of the repositories its {@code load()} reads from,
+ * forming a DAG. A repository starts loading on the thread pool as soon as all of its dependencies
+ * have finished, so independent repositories load side by side. Dependencies must be registered
+ * before the repositories that need them, which also rules out cycles.
+ * </p>
+ */
+public class RepositoryLoader {
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+
+    private static class Step {
+        private final String name;
+        private final Runnable load;
+        private final List<String> dependencies;
+
+        private Step(String name, Runnable load, List<String> dependencies) {
+            this.name = name;
+            this.load = load;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Registers a repository to load.
+     *
+     * @param name         the name used for dependencies and timing reports
+     * @param load         the repository's load method
+     * @param dependencies names of already registered repositories that must finish loading first
+     * @return this loader, for chaining
+     * @throws IllegalArgumentException if the name is taken or a dependency is not registered yet
+     */
+    public RepositoryLoader add(String name, Runnable load, String... dependencies) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Repository already registered: " + name);
+        }
+        for (String dependency : dependencies) {
+            if (!steps.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown dependency " + dependency + " for " + name);
+            }
+        }
+        steps.put(name, new Step(name, load, List.of(dependencies)));
+        return this;
+    }
+
+    /**
+     * Loads every registered repository and waits for all of them to finish.
+     *
+     * @param threads the maximum number of repositories loading at the same time
+     * @throws RuntimeException the first exception thrown by a repository's load method
+     */
+    public void loadAll(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, steps.size())), runnable -> {
+            Thread thread = new Thread(runnable, "repository-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            for (Step step : steps.values()) {
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (String dependency : step.dependencies) {
+                    dependencies.add(futures.get(dependency));
+                }
+                CompletableFuture<Void> future = CompletableFuture
+                        .allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                        .thenRunAsync(() -> run(step), executor);
+                futures.put(step.name, future);
+            }
+
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void run(Step step) {
+        long start = System.nanoTime();
+        step.load.run();
+        timings.put(step.name, System.nanoTime() - start);
+    }
+
+    /**
+     * Gets how long each repository took to load, in registration order.
+     *
+     * @return repository names mapped to load times in nanoseconds
+     */
+    public Map<String, Long> getTimings() {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (String name : steps.keySet()) {
+            Long nanos = timings.get(name);
+            if (nanos != null) {
+                ordered.put(name, nanos);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Formats the load times as a single line, for example {@code users 3 ms, projects 1 ms}.
+     *
+     * @return the per-repository load times
+     */
+    public String formatTimings() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Long> entry : getTimings().entrySet()) {
+            if (report.length() > 0) {
+                report.append(", ");
+            }
+            report.append(entry.getKey()).append(' ').append(entry.getValue() / 1_000_000).append(" ms");
+        }
+        return report.toString();
+    }
+}
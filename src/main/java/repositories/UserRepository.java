@@ -1,22 +1,28 @@
 package repositories;
 
+import interfaces.ICsvCodec;
 import interfaces.ICsvConfig;
 
 import java.io.IOException;
 import java.util.*;
 
+import models.Session;
 import models.User;
 import models.enums.MaritalStatus;
 import models.enums.Role;
 
-import utils.CsvReader;
-import utils.CsvWriter;
+import utils.CsvRecord;
+import utils.LongHashMap;
+import utils.NricCodec;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
 
 /**
  * Repository for managing users, including loading from and saving to a CSV file.
  * <p>
  * This class provides functionality for handling user data, such as adding, removing, and updating users.
- * It also manages the active user and their role within the application.
+ * It also exposes the active user and their role, which belong to the current {@link Session}, so each
+ * concurrent session has its own.
  * </p>
  */
 public class UserRepository {
@@ -36,76 +42,98 @@ public class UserRepository {
         }
     }
 
-    private static List<User> users = new ArrayList<>();
-    private static User activeUser = null;
-    private static Role userMode = null;
-    private static final UserCsvConfig csvConfig = new UserCsvConfig();
-
-    private UserRepository() {}
-
     /**
-     * Saves all users to the CSV file.
-     * <p>
-     * The method iterates over all users, converts them to a map representation, and writes them
-     * to the CSV file using the configured CSV writer.
-     * </p>
+     * Converts users to and from CSV rows and snapshot entries.
      */
-    public static void saveAll() {
-        List<Map<String, String>> records = new ArrayList<>();
-        for (User user : users) {
-            Map<String, String> record = new HashMap<>();
+    private static class UserCodec implements ICsvCodec<User> {
+        @Override
+        public User decode(CsvRecord record) {
+            User user = new User(
+                    NricCodec.intern(record.get("UserNRIC")),
+                    record.get("Name"),
+                    record.get("Password"),
+                    Integer.parseInt(record.get("Age"))
+            );
+            user.setMaritalStatus(MaritalStatus.valueOf(record.get("MaritalStatus")));
+            user.setRole(Role.valueOf(record.get("Role")));
+            return user;
+        }
+
+        @Override
+        public void encode(User user, CsvRecord record) {
             record.put("UserNRIC", user.getUserNRIC());
             record.put("Name", user.getName());
             record.put("Password", user.getPassword());
             record.put("Age", String.valueOf(user.getAge()));
             record.put("MaritalStatus", user.getMaritalStatus().toString());
             record.put("Role", user.getRole().toString());
-            records.add(record);
         }
 
-        try {
-            CsvWriter.write(new UserCsvConfig(), records);
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
+        @Override
+        public void writeSnapshot(User user, SnapshotOutput out) throws IOException {
+            out.writeString(user.getUserNRIC());
+            out.writeString(user.getName());
+            out.writeString(user.getPassword());
+            out.writeInt(user.getAge());
+            out.writeEnum(user.getMaritalStatus());
+            out.writeEnum(user.getRole());
+        }
+
+        @Override
+        public User readSnapshot(SnapshotInput in) throws IOException {
+            User user = new User(NricCodec.intern(in.readString()), in.readString(), in.readString(), in.readInt());
+            user.setMaritalStatus(in.readEnum(MaritalStatus.class));
+            user.setRole(in.readEnum(Role.class));
+            return user;
         }
     }
 
+    private static final CsvRepository<User> users =
+            new CsvRepository<>("users", new UserCsvConfig(), new UserCodec(), User::getUserNRIC);
+
+    // Users by packed NRIC, for lookups without hashing or comparing strings; see NricCodec
+    private static final LongHashMap<User> byPackedNRIC = new LongHashMap<>();
+
+    private UserRepository() {}
+
     /**
-     * Loads users from the CSV file.
+     * Saves all users to the CSV file.
      * <p>
-     * This method reads the CSV file, parses each record, and converts it into a `User` object.
+     * The file is rewritten right away, or on the next flush once {@link WriteBehind} is running.
      * </p>
      */
+    public static void saveAll() {
+        users.saveAll();
+    }
+
+    /**
+     * Loads users from the snapshot if it is current, otherwise from the CSV file.
+     */
     public static void load() {
-        try {
-            List<Map<String, String>> records = CsvReader.read(new UserCsvConfig());
-            users = new ArrayList<>();
-
-            for (Map<String, String> record : records) {
-                User user = new User(
-                        record.get("UserNRIC"),
-                        record.get("Name"),
-                        record.get("Password"),
-                        Integer.parseInt(record.get("Age"))
-                );
-                user.setMaritalStatus(MaritalStatus.valueOf(record.get("MaritalStatus")));
-                user.setRole(Role.valueOf(record.get("Role")));
-                users.add(user);
-            }
-            System.out.println("Loaded " + users.size() + " users from CSV.");
-
-        } catch (IOException e) {
-            System.err.println("Error loading users: " + e.getMessage());
+        users.load();
+        byPackedNRIC.clear();
+        for (User user : users.getAll()) {
+            indexByPackedNRIC(user);
         }
     }
 
+    /**
+     * Writes a binary snapshot of all users so the next start can skip parsing the CSV file.
+     * <p>
+     * Call this after the CSV file has been saved; see {@link utils.Snapshot}.
+     * </p>
+     */
+    public static void saveSnapshot() {
+        users.saveSnapshot();
+    }
+
     /**
      * Retrieves all users.
      *
      * @return a list of all users
      */
     public static List<User> getAll() {
-        return users;
+        return users.getAll();
     }
 
     /**
@@ -118,9 +146,8 @@ public class UserRepository {
      * @param user the user to add
      */
     public static void add(User user) {
-        if (getByNRIC(user.getUserNRIC()) == null) {
-            users.add(user);
-            saveAll();
+        if (users.add(user)) {
+            indexByPackedNRIC(user);
         } else {
             System.err.println("User with NRIC " + user.getUserNRIC() + " already exists.");
         }
@@ -133,63 +160,66 @@ public class UserRepository {
      * @return the user with the specified NRIC, or null if no such user exists
      */
     public static User getByNRIC(String nric) {
-        return users.stream()
-                .filter(user -> user.getUserNRIC().equals(nric))
-                .findFirst()
-                .orElse(null);
+        long packed = NricCodec.pack(nric);
+        // Users whose NRIC can't be packed are only in the CSV repository's own map
+        return packed != NricCodec.INVALID ? byPackedNRIC.get(packed) : users.get(nric);
     }
 
     /**
-     * Retrieves the active user.
+     * Retrieves the active user of the current session.
      *
      * @return the active user, or null if no active user is set
      */
     public static User getActiveUser() {
-        return activeUser;
+        return Session.current().getActiveUser();
     }
 
     /**
-     * Sets the active user.
+     * Sets the active user of the current session.
      *
      * @param user the user to set as active
      */
     public static void setActiveUser(User user) {
-        activeUser = user;
+        Session.current().setActiveUser(user);
     }
 
     /**
-     * Checks if the specified user is the active user.
+     * Checks if the specified user is the active user of the current session.
      *
      * @param user the user to check
      * @return true if the user is the active user, false otherwise
      */
     public static boolean isActiveUser(User user) {
+        User activeUser = getActiveUser();
         return activeUser != null && activeUser.getUserNRIC().equals(user.getUserNRIC());
     }
 
     /**
-     * Clears the active user.
+     * Clears the active user of the current session.
      */
     public static void clearActiveUser() {
-        activeUser = null;
+        Session.current().setActiveUser(null);
     }
 
     /**
      * Updates an existing user in the repository.
      * <p>
-     * The method searches for the user by their NRIC and replaces the existing user with the new one.
+     * The method looks up the user by their NRIC and replaces the existing user with the new one.
      * The updated list of users is then saved to the CSV file.
      * </p>
      *
      * @param user the user to update
      */
     public static void updateUser(User user) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUserNRIC().equals(user.getUserNRIC())) {
-                users.set(i, user);
-                saveAll();
-                return;
-            }
+        if (users.update(user)) {
+            indexByPackedNRIC(user);
+        }
+    }
+
+    private static void indexByPackedNRIC(User user) {
+        long packed = NricCodec.pack(user.getUserNRIC());
+        if (packed != NricCodec.INVALID) {
+            byPackedNRIC.put(packed, user);
         }
     }
 
@@ -199,6 +229,7 @@ public class UserRepository {
      * @return the role of the active user, or null if no active user is set
      */
     public static Role getUserRole() {
+        User activeUser = getActiveUser();
         if (activeUser != null) {
             return activeUser.getRole();
         }
@@ -206,20 +237,20 @@ public class UserRepository {
     }
 
     /**
-     * Retrieves the current user mode (role).
+     * Retrieves the current user mode (role) of the current session.
      *
      * @return the current user mode (role)
      */
     public static Role getUserMode() {
-        return userMode;
+        return Session.current().getUserMode();
     }
 
     /**
-     * Sets the user mode (role).
+     * Sets the user mode (role) of the current session.
      *
      * @param mode the role to set as the current user mode
      */
     public static void setUserMode(Role mode) {
-        userMode = mode;
+        Session.current().setUserMode(mode);
     }
 }
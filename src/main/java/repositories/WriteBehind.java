@@ -0,0 +1,260 @@
+package repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind persistence shared by the repositories.
+ * <p>
+ * Instead of rewriting a CSV file on every change, a repository marks itself dirty (or queues
+ * rows to append) and a background thread flushes the accumulated changes, either every
+ * configured interval or as soon as the number of pending changes reaches a threshold. A burst
+ * of updates to one repository therefore costs a single rewrite.
+ * </p>
+ * <p>
+ * Until {@link #start(long, int)} is called every change is written synchronously, which keeps
+ * tools and tests that use the repositories directly working as before. Once started, a JVM
+ * shutdown hook guarantees pending changes are flushed on exit, and {@link #flush()} can be
+ * called to persist everything immediately.
+ * </p>
+ */
+public class WriteBehind {
+    private static final List<Target<?>> targets = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger pendingChanges = new AtomicInteger();
+
+    private static volatile ScheduledExecutorService scheduler;
+    private static volatile int sizeThreshold = Integer.MAX_VALUE;
+    private static Thread shutdownHook;
+
+    private WriteBehind() {}
+
+    /**
+     * Registers a repository that is only ever persisted by rewriting its whole file.
+     *
+     * @param name    a short name used in error messages
+     * @param rewrite rewrites the whole file from the repository's current contents
+     * @param <T>     the type of item the repository stores
+     * @return the handle the repository reports its changes through
+     */
+    public static <T> Target<T> register(String name, Runnable rewrite) {
+        return register(name, rewrite, items -> rewrite.run());
+    }
+
+    /**
+     * Registers a repository's persistence callbacks.
+     *
+     * @param name     a short name used in error messages
+     * @param rewrite  rewrites the whole file from the repository's current contents
+     * @param appender appends the given rows to the end of the file
+     * @param <T>      the type of item the repository stores
+     * @return the handle the repository reports its changes through
+     */
+    public static <T> Target<T> register(String name, Runnable rewrite, Consumer<List<T>> appender) {
+        Target<T> target = new Target<>(name, rewrite, appender);
+        targets.add(target);
+        return target;
+    }
+
+    /**
+     * Starts the background flusher.
+     *
+     * @param intervalMillis how often pending changes are flushed, in milliseconds
+     * @param threshold      number of pending changes that triggers an early flush
+     */
+    public static synchronized void start(long intervalMillis, int threshold) {
+        if (scheduler != null) {
+            return;
+        }
+        if (intervalMillis <= 0 || threshold <= 0) {
+            throw new IllegalArgumentException("Flush interval and threshold must be positive");
+        }
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(WriteBehind::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        sizeThreshold = threshold;
+        scheduler = executor;
+
+        shutdownHook = new Thread(WriteBehind::flush, "write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Flushes all pending changes and stops the background flusher.
+     * Subsequent changes are written synchronously again.
+     */
+    public static synchronized void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            return;
+        }
+        scheduler = null;
+        sizeThreshold = Integer.MAX_VALUE;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // Already shutting down, the hook is running or has run
+        }
+        shutdownHook = null;
+    }
+
+    /**
+     * Checks whether changes are currently deferred to the background flusher.
+     *
+     * @return true if write-behind is active
+     */
+    public static boolean isEnabled() {
+        return scheduler != null;
+    }
+
+    /**
+     * Writes every pending change on the calling thread.
+     */
+    public static void flush() {
+        pendingChanges.set(0);
+        for (Target<?> target : targets) {
+            target.flush();
+        }
+    }
+
+    private static void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Error flushing repositories: " + e.getMessage());
+        }
+    }
+
+    private static void changed() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null && pendingChanges.incrementAndGet() >= sizeThreshold) {
+            pendingChanges.set(0);
+            try {
+                executor.execute(WriteBehind::flushQuietly);
+            } catch (RuntimeException ignored) {
+                // Stopping, the final flush picks the change up
+            }
+        }
+    }
+
+    /**
+     * Dirty state of a single repository.
+     *
+     * @param <T> the type of item the repository stores
+     */
+    public static final class Target<T> {
+        private final String name;
+        private final Runnable rewrite;
+        private final Consumer<List<T>> appender;
+        private final Object ioLock = new Object();
+
+        private boolean rewritePending;
+        private List<T> pendingAppends = new ArrayList<>();
+
+        private Target(String name, Runnable rewrite, Consumer<List<T>> appender) {
+            this.name = name;
+            this.rewrite = rewrite;
+            this.appender = appender;
+        }
+
+        /**
+         * Requests a full rewrite of the repository's file.
+         */
+        public void markDirty() {
+            if (!isEnabled()) {
+                synchronized (ioLock) {
+                    rewrite.run();
+                }
+                return;
+            }
+            synchronized (this) {
+                rewritePending = true;
+                pendingAppends.clear();
+            }
+            changed();
+        }
+
+        /**
+         * Queues a newly added item to be appended to the repository's file. No I/O happens here.
+         * <p>
+         * Call it while still holding the lock under which the item was added, and have the rewrite
+         * callback call {@link #discardAppends()} under that same lock as it takes the rows to write.
+         * A concurrent rewrite then either includes the item and drops it from the queue, or ran
+         * before the item existed, so the row is never written twice. Call {@link #appended()} once
+         * the lock is released.
+         * </p>
+         *
+         * @param item the item to append
+         */
+        public void append(T item) {
+            synchronized (this) {
+                if (!rewritePending) {
+                    pendingAppends.add(item); // A pending rewrite already includes the item
+                }
+            }
+        }
+
+        /**
+         * Writes the queued appends right away if write-behind is off, otherwise counts them
+         * towards an early flush. Must not be called while holding the repository's lock.
+         */
+        public void appended() {
+            if (!isEnabled()) {
+                flush();
+                return;
+            }
+            changed();
+        }
+
+        /**
+         * Drops every queued append. Called from the rewrite callback, under the repository's lock,
+         * once it has taken the rows to write, since those include every queued item.
+         */
+        public void discardAppends() {
+            synchronized (this) {
+                pendingAppends.clear();
+            }
+        }
+
+        private void flush() {
+            synchronized (ioLock) {
+                boolean doRewrite;
+                List<T> appends;
+                synchronized (this) {
+                    doRewrite = rewritePending;
+                    appends = pendingAppends;
+                    rewritePending = false;
+                    pendingAppends = new ArrayList<>();
+                }
+
+                try {
+                    if (doRewrite) {
+                        rewrite.run();
+                    } else if (!appends.isEmpty()) {
+                        appender.accept(appends);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Error flushing " + name + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
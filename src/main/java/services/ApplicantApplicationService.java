@@ -1,13 +1,16 @@
 package services;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import interfaces.IApplicantApplicationService;
 import models.*;
 import models.enums.*;
 import repositories.*;
+import utils.DateTimeUtils;
 
 /**
  * Service class for handling applicant-related application logic.
@@ -52,20 +55,28 @@ public class ApplicantApplicationService implements IApplicantApplicationService
             throw new IllegalArgumentException("User cannot be null");
         }
 
-        LocalDateTime now = LocalDateTime.now();
+        Set<String> appliedProjectIds = getAppliedProjectIds(user);
+        LocalDateTime now = DateTimeUtils.getCurrentDateTime();
         return allProjects.stream()
                 .filter(Project::isVisible)
                 .filter(p -> now.isAfter(p.getApplicationOpenDate()) && now.isBefore(p.getApplicationCloseDate()))
-                .filter(p -> !hasExistingApplication(user, p))
+                .filter(p -> !appliedProjectIds.contains(p.getProjectID()))
                 .collect(Collectors.toList());
     }
 
-    private boolean hasExistingApplication(User user, Project project) {
-        return ApplicationRepository.getAll().stream()
-                .filter(app -> app.getApplicantNRIC().equals(user.getUserNRIC()))
-                .filter(app -> app.getProjectId().equals(project.getProjectID()))
-                .anyMatch(app -> app.getApplicationStatus() != ApplicationStatus.UNSUCCESSFUL && 
-                               app.getApplicationStatus() != ApplicationStatus.WITHDRAWN);
+    /**
+     * Collects the projects a user already holds an application for that still counts, i.e. one
+     * that was not unsuccessful or withdrawn, in one pass over the user's applications.
+     */
+    private Set<String> getAppliedProjectIds(User user) {
+        Set<String> projectIds = new HashSet<>();
+        for (Application app : ApplicationRepository.getByApplicant(user.getUserNRIC())) {
+            if (app.getApplicationStatus() != ApplicationStatus.UNSUCCESSFUL &&
+                    app.getApplicationStatus() != ApplicationStatus.WITHDRAWN) {
+                projectIds.add(app.getProjectId());
+            }
+        }
+        return projectIds;
     }
 
     /**
@@ -80,9 +91,7 @@ public class ApplicantApplicationService implements IApplicantApplicationService
             throw new IllegalArgumentException("Applicant cannot be null");
         }
 
-        return ApplicationRepository.getAll().stream()
-                .filter(app -> app.getApplicantNRIC().equals(applicant.getUserNRIC()))
-                .collect(Collectors.toList());
+        return ApplicationRepository.getByApplicant(applicant.getUserNRIC());
     }
 
     /**
@@ -96,31 +105,37 @@ public class ApplicantApplicationService implements IApplicantApplicationService
      * @param project the project the applicant is applying to
      * @param flatType the flat type the applicant is applying for
      * @return true if the application was successfully submitted, false if the applicant already has an active application
+     * @throws IllegalStateException if no units are left or the new application's ID is already taken
      */
     @Override
     public boolean submitApplication(Applicant applicant, Project project, FlatType flatType) {
         validateSubmissionParameters(applicant, project, flatType);
-        
-        boolean hasActiveApplication = hasActiveApplication(applicant);
-        if (hasActiveApplication) {
-            return false;
-        }
 
-        if (project.getAvailableUnits(flatType) <= 0) {
-            throw new IllegalStateException("No available units left for this flat type");
-        }
+        // The same applicant may submit from several sessions at once; only one may get past the check
+        synchronized (applicant) {
+            boolean hasActiveApplication = hasActiveApplication(applicant);
+            if (hasActiveApplication) {
+                return false;
+            }
+
+            if (project.getAvailableUnits(flatType) <= 0) {
+                throw new IllegalStateException("No available units left for this flat type");
+            }
 
-        if (applicant.getMaritalStatus() != MaritalStatus.MARRIED && flatType != FlatType.TWO_ROOM) {
-            throw new IllegalArgumentException("Singles/Divorced can only apply for two room flats.");
+            if (applicant.getMaritalStatus() != MaritalStatus.MARRIED && flatType != FlatType.TWO_ROOM) {
+                throw new IllegalArgumentException("Singles/Divorced can only apply for two room flats.");
+            }
+
+            Application application = new Application(applicant.getUserNRIC(), project.getProjectID(), flatType);
+            if (!ApplicationRepository.add(application)) {
+                throw new IllegalStateException("Application ID " + application.getApplicationID() + " is already taken");
+            }
+            ApplicationRepository.saveAll();
+
+            applicant.addAppliedProject(project.getProjectID());
+            ApplicantRepository.update(applicant);
         }
 
-        Application application = new Application(applicant.getUserNRIC(), project.getProjectID(), flatType);
-        ApplicationRepository.add(application);
-        ApplicationRepository.saveAll();
-        
-        applicant.addAppliedProject(project.getProjectID());
-        ApplicantRepository.update(applicant);
-        
         return true;
     }
 
@@ -137,11 +152,11 @@ public class ApplicantApplicationService implements IApplicantApplicationService
         if (!project.isVisible()) {
             throw new IllegalStateException("Project is not available for applications");
         }
-        if (!project.getFlatTypes().contains(flatType)) {
+        if (!project.hasFlatType(flatType)) {
             throw new IllegalArgumentException("Selected flat type is not available in this project");
         }
 
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = DateTimeUtils.getCurrentDateTime();
         if (now.isBefore(project.getApplicationOpenDate()) || now.isAfter(project.getApplicationCloseDate())) {
             throw new IllegalStateException("Project is not open for applications at this time");
         }
@@ -169,8 +184,11 @@ public class ApplicantApplicationService implements IApplicantApplicationService
     @Override
     public void withdrawApplication(Applicant applicant, String applicationId) {
         Application application = validateWithdrawalRequest(applicant, applicationId);
-        
-        application.requestWithdrawal();
+
+        // Serialised with bookings and withdrawal approvals, which lock the application too
+        synchronized (application) {
+            application.requestWithdrawal();
+        }
         ApplicationRepository.saveAll();
     }
 
@@ -1,14 +1,12 @@
 package services;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import interfaces.IApplicationService;
 import models.Application;
 import models.Manager;
 import models.Officer;
 import models.Project;
-import models.Receipt;
 import models.enums.ApplicationStatus;
 import repositories.ApplicationRepository;
 import repositories.ProjectRepository;
@@ -42,9 +40,19 @@ public class ApplicationService implements IApplicationService {
      */
     @Override
     public List<Application> getProjectApplications(Project project) {
-        return ApplicationRepository.getAll().stream()
-                .filter(app -> app.getProjectId().equals(project.getProjectID()))
-                .collect(Collectors.toList());
+        return ApplicationRepository.getByProject(project.getProjectID());
+    }
+
+    /**
+     * Retrieves the applications for a specific project that have one of the given statuses.
+     *
+     * @param project The project to filter applications by
+     * @param statuses The application statuses to include
+     * @return List of matching {@code Application} objects for the given project
+     */
+    @Override
+    public List<Application> getProjectApplications(Project project, ApplicationStatus... statuses) {
+        return ApplicationRepository.getByProjectAndStatus(project.getProjectID(), statuses);
     }
 
     /**
@@ -107,14 +115,36 @@ public class ApplicationService implements IApplicationService {
         }
     }
 
+    /**
+     * Approves a withdrawal request. If the application had been booked, its flat is returned to the project.
+     *
+     * @param application The application being withdrawn
+     * @param manager The manager approving the withdrawal
+     * @return {@code true} if the withdrawal was approved, {@code false} otherwise
+     */
     @Override
     public boolean approveWithdrawal(Application application, Manager manager) {
-        if (application == null || !application.canApproveWithdrawal()) {
+        if (application == null) {
             return false;
         }
         try {
-            application.approveWithdrawal(manager.getUserNRIC());
+            boolean wasBooked;
+            // Managers may approve from several sessions at once; only one may withdraw and return the flat
+            synchronized (application) {
+                if (!application.canApproveWithdrawal()) {
+                    return false;
+                }
+                // The status is WITHDRAWAL_REQUESTED by now, so the history tells whether a flat was taken.
+                wasBooked = application.hasReachedStatus(ApplicationStatus.BOOKED);
+                application.approveWithdrawal(manager.getUserNRIC());
+            }
             ApplicationRepository.saveAll();
+
+            Project project = ProjectRepository.getById(application.getProjectId());
+            if (wasBooked && project != null) {
+                project.release(application.getSelectedFlatType());
+                ProjectRepository.saveAll();
+            }
             return true;
         } catch (IllegalStateException e) {
             System.err.println("Error approving withdrawal: " + e.getMessage());
@@ -128,11 +158,16 @@ public class ApplicationService implements IApplicationService {
 
     @Override
     public boolean rejectWithdrawal(Application application, Manager manager) {
-        if (application == null || !application.canRejectWithdrawal()) {
+        if (application == null) {
             return false;
         }
         try {
-            application.rejectWithdrawal(manager.getUserNRIC());
+            synchronized (application) {
+                if (!application.canRejectWithdrawal()) {
+                    return false;
+                }
+                application.rejectWithdrawal(manager.getUserNRIC());
+            }
             ApplicationRepository.saveAll();
             return true;
         } catch (IllegalStateException e) {
@@ -162,33 +197,85 @@ public class ApplicationService implements IApplicationService {
      */
     @Override
     public boolean bookApplication(Application application, Officer officer, String selectedUnitNumber) {
-        if (application == null || !application.canBook()) {
+        if (application == null) {
             return false;
         }
 
-        Project project = ProjectRepository.getById(application.getProjectId());
-        List<Receipt> receipts = ReceiptRepository.getByProjectID(project.getProjectID());
-        if (receipts.stream().anyMatch(r -> r.getUnitNumber().equals(selectedUnitNumber))) {
-            CommonView.displayError("Unit number already booked. Please select a different unit.");
-            return false;
+        // Officers may book from several sessions at once; only one may book a given application
+        synchronized (application) {
+            if (!application.canBook()) {
+                return false;
+            }
+
+            Project project = ProjectRepository.getById(application.getProjectId());
+            if (selectedUnitNumber == null || selectedUnitNumber.trim().isEmpty()) {
+                System.err.println("Error booking application: Unit number cannot be empty.");
+                return false;
+            }
+
+            // Claiming the unit is the collision check, so two officers cannot book the same unit.
+            if (!ReceiptRepository.claimUnit(project.getProjectID(), selectedUnitNumber)) {
+                CommonView.displayError("Unit number already booked. Please select a different unit.");
+                return false;
+            }
+
+            return completeBooking(application, project, selectedUnitNumber);
         }
+    }
 
-        if (project.getAvailableUnits(application.getSelectedFlatType()) <= 0) {
-            return false;
+    /**
+     * Books an application into the lowest free unit of its project.
+     * <p>
+     * The unit is claimed atomically, so concurrent bookings never pick the same unit.
+     * </p>
+     *
+     * @param application The application to book
+     * @param officer The officer processing the booking
+     * @return The unit number booked, or {@code null} if the booking failed
+     */
+    @Override
+    public String bookNextFreeUnit(Application application, Officer officer) {
+        if (application == null) {
+            return null;
         }
 
-        if (selectedUnitNumber == null || selectedUnitNumber.trim().isEmpty()) { 
-             System.err.println("Error booking application: Unit number cannot be empty.");
-             return false;
+        synchronized (application) {
+            if (!application.canBook()) {
+                return null;
+            }
+
+            Project project = ProjectRepository.getById(application.getProjectId());
+            String unitNumber = ReceiptRepository.claimNextFreeUnit(project.getProjectID());
+            if (unitNumber == null) {
+                CommonView.displayError("No free unit numbers left in this project.");
+                return null;
+            }
+
+            return completeBooking(application, project, unitNumber) ? unitNumber : null;
         }
+    }
 
+    /**
+     * Books an application into a unit already claimed for it, releasing the unit if booking fails.
+     * Called while holding the application's lock, so its status cannot change in between.
+     */
+    private boolean completeBooking(Application application, Project project, String unitNumber) {
+        boolean booked = false;
+        boolean reserved = false;
         try {
-            project.reduceFlatCount(application.getSelectedFlatType());
+            // Taking the flat is a single compare-and-set, so concurrent bookings of different
+            // applications cannot oversell; the application lock keeps one application to one flat.
+            reserved = project.tryReserve(application.getSelectedFlatType());
+            if (!reserved) {
+                return false;
+            }
+
             application.book();
 
             ProjectRepository.saveAll();
             ApplicationRepository.saveAll();
 
+            booked = true;
             return true;
         } catch (IllegalStateException e) {
             System.err.println("Error booking application: " + e.getMessage());
@@ -197,6 +284,13 @@ public class ApplicationService implements IApplicationService {
             System.err.println("An unexpected error occurred during booking: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            if (!booked) {
+                if (reserved) {
+                    project.release(application.getSelectedFlatType());
+                }
+                ReceiptRepository.releaseUnit(project.getProjectID(), unitNumber);
+            }
         }
     }
 }
@@ -51,9 +51,7 @@ public class EnquiryService implements IEnquiryService {
         if (applicant == null) {
             throw new IllegalArgumentException("Applicant cannot be null");
         }
-        return EnquiryRepository.getAll().stream()
-                .filter(enquiry -> enquiry.getApplicantNRIC().equals(applicant.getUserNRIC()))
-                .collect(java.util.stream.Collectors.toList());
+        return EnquiryRepository.getEnquiriesByApplicant(applicant.getUserNRIC());
     }
 
     /**
@@ -61,6 +59,7 @@ public class EnquiryService implements IEnquiryService {
      * Validates the enquiry object.
      *
      * @param enquiry the enquiry to create
+     * @throws IllegalStateException if an enquiry with the same ID already exists
      */
     @Override
     public void createEnquiry(Enquiry enquiry) {
@@ -70,8 +69,9 @@ public class EnquiryService implements IEnquiryService {
         if (enquiry.getQuery() == null || enquiry.getQuery().trim().isEmpty()) {
             throw new IllegalArgumentException("Enquiry content cannot be empty");
         }
-        EnquiryRepository.add(enquiry);
-        EnquiryRepository.saveAll();
+        if (!EnquiryRepository.add(enquiry)) {
+            throw new IllegalStateException("Enquiry ID " + enquiry.getEnquiryID() + " is already taken");
+        }
     }
 
     /**
@@ -7,8 +7,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import interfaces.ICsvConfig;
 import interfaces.IManagerService;
@@ -39,32 +37,22 @@ public class ManagerService implements IManagerService {
 
     @Override
     public List<Map<String, String>> generateApplicantReport(Project project, Map<String, String> filters) {
-        List<Application> bookedApplications = ApplicationRepository.getAll().stream()
-                .filter(app -> app.getProjectId().equals(project.getProjectID())) // Filter by project ID
-                .filter(app -> app.getApplicationStatus() == ApplicationStatus.BOOKED)
-                .collect(Collectors.toList());
-
-        Stream<Application> filteredStream = bookedApplications.stream();
-
-        if (filters.containsKey("maritalStatus")) {
-            MaritalStatus filterStatus = MaritalStatus.valueOf(filters.get("maritalStatus"));
-            filteredStream = filteredStream.filter(app -> {
-                Applicant applicant = ApplicantRepository.getByNRIC(app.getApplicantNRIC());
-                return applicant != null && applicant.getMaritalStatus() == filterStatus;
-            });
-        }
-
-        if (filters.containsKey("flatType")) {
-            FlatType filterType = FlatType.valueOf(filters.get("flatType"));
-            filteredStream = filteredStream.filter(app -> app.getSelectedFlatType() == filterType);
-        }
-
-        List<Application> finalFilteredApplications = filteredStream.collect(Collectors.toList());
+        MaritalStatus filterStatus = filters.containsKey("maritalStatus")
+                ? MaritalStatus.valueOf(filters.get("maritalStatus")) : null;
+        FlatType filterType = filters.containsKey("flatType")
+                ? FlatType.valueOf(filters.get("flatType")) : null;
 
+        // Only this project's applications are visited, and each applicant is looked up once.
         List<Map<String, String>> reportData = new ArrayList<>();
-        for (Application app : finalFilteredApplications) {
+        for (Application app : ApplicationRepository.getByProject(project.getProjectID())) {
+            if (app.getApplicationStatus() != ApplicationStatus.BOOKED) {
+                continue;
+            }
+            if (filterType != null && app.getSelectedFlatType() != filterType) {
+                continue;
+            }
             Applicant applicant = ApplicantRepository.getByNRIC(app.getApplicantNRIC());
-            if (applicant != null) { 
+            if (applicant != null && (filterStatus == null || applicant.getMaritalStatus() == filterStatus)) {
                 Map<String, String> row = new HashMap<>();
                 row.put("applicantNRIC", applicant.getUserNRIC());
                 row.put("applicantName", applicant.getName());
@@ -1,6 +1,8 @@
 package services;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import interfaces.IOfficerService;
 import models.Officer;
@@ -99,14 +101,12 @@ public class OfficerService implements IOfficerService {
         }
 
         // Checks if application period conflicts with other projects
-        List<Project> registeredProjects = ProjectRepository.getAll().stream()
-            .filter(p -> officerRegistrations.stream()
-                .anyMatch(r -> r.getProjectID().equals(p.getProjectID())))
-            .toList();
+        Set<String> registeredProjectIds = officerRegistrations.stream()
+            .map(Registration::getProjectID)
+            .collect(Collectors.toSet());
 
-        return registeredProjects.stream()
-            .noneMatch(r -> r.getApplicationOpenDate().isBefore(project.getApplicationCloseDate()) &&
-                r.getApplicationCloseDate().isAfter(project.getApplicationOpenDate()));
+        return ProjectRepository.getOverlapping(project.getApplicationOpenDate(), project.getApplicationCloseDate()).stream()
+            .noneMatch(p -> registeredProjectIds.contains(p.getProjectID()));
     }
 
     /**
@@ -114,10 +114,13 @@ public class OfficerService implements IOfficerService {
      *
      * @param officer the officer to register
      * @param project the project to register the officer for
+     * @throws IllegalStateException if the new registration's ID is already taken
      */
     public void registerOfficerForProject(Officer officer, Project project) {
         Registration registration = new Registration(officer, project.getProjectID());
-        RegistrationRepository.add(registration);
+        if (!RegistrationRepository.add(registration)) {
+            throw new IllegalStateException("Registration ID " + registration.getRegistrationID() + " is already taken");
+        }
     }
 
     /**
@@ -127,10 +130,8 @@ public class OfficerService implements IOfficerService {
      * @return the project assigned to the officer, or {@code null} if none exists
      */
     public Project getProjectByOfficer(Officer officer) {
-        return ProjectRepository.getAll().stream()
-            .filter(p -> p.getOfficers().contains(officer.getUserNRIC()))
-            .findFirst()
-            .orElse(null);
+        List<Project> projects = ProjectRepository.getByOfficer(officer.getUserNRIC());
+        return projects.isEmpty() ? null : projects.get(0);
     }
 
     /**
@@ -140,8 +141,6 @@ public class OfficerService implements IOfficerService {
      * @return a list of projects handled by the officer
      */
     public List<Project> getHandledProjects(Officer officer) {
-        return ProjectRepository.getAll().stream()
-            .filter(p -> p.getOfficers().contains(officer.getUserNRIC()))
-            .toList();
+        return ProjectRepository.getByOfficer(officer.getUserNRIC());
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +38,57 @@ import views.CommonView;
 public class ProjectService implements IProjectService {
     private static ProjectService instance;
 
+    private volatile VisibleProjects visibleProjects;
+
+    /**
+     * Which projects an applicant may see, by marital status and age.
+     */
+    private enum Eligibility {
+        ANY_FLAT,
+        TWO_ROOM_ONLY
+    }
+
+    /**
+     * The applicant-visible projects for one version of the project repository, cached per
+     * eligibility and, for officers, per officer since they never see their own projects.
+     * <p>
+     * Nothing about which projects are open changes until the next application open or close
+     * date, so each set is worked out as of {@link #asOf} and reused until {@link #expiresAt}.
+     * Both come from the repository's index of application periods rather than a scan.
+     * </p>
+     */
+    private static final class VisibleProjects {
+        private final long version;
+        private final LocalDateTime asOf;
+        private final long expiresAt;
+        private final Map<String, List<Project>> byAudience = new ConcurrentHashMap<>();
+
+        private VisibleProjects(long version, LocalDateTime asOf) {
+            this.version = version;
+            this.asOf = asOf;
+            this.expiresAt = nextBoundary(asOf);
+        }
+
+        private boolean isCurrent(long version, long nowMillis) {
+            return this.version == version && nowMillis < expiresAt;
+        }
+
+        // A project becomes visible just after it opens and stops being visible as it closes
+        private static long nextBoundary(LocalDateTime now) {
+            long next = Long.MAX_VALUE;
+            LocalDateTime opening = ProjectRepository.getNextOpening(now);
+            if (opening != null) {
+                next = DateTimeUtils.toEpochMilli(opening) + 1;
+            }
+            for (Project project : ProjectRepository.getOpenAt(now)) {
+                if (project.isVisible()) {
+                    next = Math.min(next, DateTimeUtils.toEpochMilli(project.getApplicationCloseDate()));
+                }
+            }
+            return next;
+        }
+    }
+
     private ProjectService() {}
     
     public static ProjectService getInstance() {
@@ -64,6 +116,8 @@ public class ProjectService implements IProjectService {
      *   <li>Officers: All projects</li>
      *   <li>Managers: All projects</li>
      * </ul>
+     * The applicant lists are cached until a project changes or the next application period
+     * opens or closes, so repeated listings do not re-filter every project.
      *
      * @return List of visible projects
      */
@@ -79,22 +133,7 @@ public class ProjectService implements IProjectService {
 
         switch (userMode) {
             case APPLICANT:
-                return ProjectRepository.getAll().stream()
-                        .filter(Project::isVisible)
-                        .filter(p -> p.getApplicationOpenDate().isBefore(DateTimeUtils.getCurrentDateTime())
-                                && p.getApplicationCloseDate().isAfter(DateTimeUtils.getCurrentDateTime()))
-                        .filter(p -> !p.getOfficers().contains(user.getUserNRIC()))
-                        .filter(p -> {
-                            List<FlatType> flatTypes = p.getFlatTypes();
-
-                            if (user.getMaritalStatus() == MaritalStatus.MARRIED && user.getAge() >= 21) {
-                                return true;
-                            } else if ((user.getMaritalStatus() == MaritalStatus.SINGLE || user.getMaritalStatus() == MaritalStatus.DIVORCED) && user.getAge() >= 35) {
-                                return flatTypes.contains(FlatType.TWO_ROOM);
-                            }
-                            return false;
-                        })
-                        .collect(Collectors.toList());
+                return getApplicantVisibleProjects(user);
             case OFFICER:
                 return new ArrayList<>(ProjectRepository.getAll());
             default:
@@ -106,6 +145,39 @@ public class ProjectService implements IProjectService {
         }
     }
 
+    private List<Project> getApplicantVisibleProjects(User user) {
+        Eligibility eligibility;
+        if (user.getMaritalStatus() == MaritalStatus.MARRIED && user.getAge() >= 21) {
+            eligibility = Eligibility.ANY_FLAT;
+        } else if ((user.getMaritalStatus() == MaritalStatus.SINGLE || user.getMaritalStatus() == MaritalStatus.DIVORCED) && user.getAge() >= 35) {
+            eligibility = Eligibility.TWO_ROOM_ONLY;
+        } else {
+            return List.of();
+        }
+
+        // Only officers are excluded from any project, so everyone else shares one set per eligibility
+        String officerNRIC = ProjectRepository.getByOfficer(user.getUserNRIC()).isEmpty() ? null : user.getUserNRIC();
+        String audience = officerNRIC == null ? eligibility.name() : eligibility.name() + "/" + officerNRIC;
+
+        VisibleProjects cache = currentVisibleProjects();
+        return cache.byAudience.computeIfAbsent(audience, key -> ProjectRepository.getOpenAt(cache.asOf).stream()
+                .filter(Project::isVisible)
+                .filter(p -> officerNRIC == null || !p.getOfficers().contains(officerNRIC))
+                .filter(p -> eligibility == Eligibility.ANY_FLAT || p.hasFlatType(FlatType.TWO_ROOM))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private VisibleProjects currentVisibleProjects() {
+        // Read the version first, so a change made while rebuilding makes the next call rebuild again
+        long version = ProjectRepository.getVersion();
+        VisibleProjects cache = visibleProjects;
+        if (cache == null || !cache.isCurrent(version, DateTimeUtils.currentTimeMillis())) {
+            cache = new VisibleProjects(version, DateTimeUtils.getCurrentDateTime());
+            visibleProjects = cache;
+        }
+        return cache;
+    }
+
     /**
      * Retrieves a project by its name.
      *
@@ -114,10 +186,7 @@ public class ProjectService implements IProjectService {
      */
     @Override
     public Project getProjectByName(String projectName) {
-        return ProjectRepository.getAll().stream()
-                .filter(p -> p.getProjectName().equals(projectName))
-                .findFirst()
-                .orElse(null);
+        return ProjectRepository.getByExactName(projectName);
     }
 
     /**
@@ -128,10 +197,8 @@ public class ProjectService implements IProjectService {
      */
     @Override
     public Project getProjectByOfficer(Officer officer) {
-        return ProjectRepository.getAll().stream()
-                .filter(p -> p.getOfficers().contains(officer.getUserNRIC()))
-                .findFirst()
-                .orElse(null);
+        List<Project> projects = ProjectRepository.getByOfficer(officer.getUserNRIC());
+        return projects.isEmpty() ? null : projects.get(0);
     }
 
     /**
@@ -142,9 +209,7 @@ public class ProjectService implements IProjectService {
      */
     @Override
     public List<Project> getProjectsByManager(Manager manager) {
-        return ProjectRepository.getAll().stream()
-                .filter(p -> p.getManagerNRIC().equals(manager.getUserNRIC()))
-                .collect(Collectors.toList());
+        return ProjectRepository.getByManager(manager.getUserNRIC());
     }
 
     /**
@@ -166,16 +231,8 @@ public class ProjectService implements IProjectService {
             String flatTypeFilterStr = filters.get("flatType");
             try {
                 FlatType flatTypeFilter = FlatType.valueOf(flatTypeFilterStr);
-                projectStream = projectStream.filter(project -> {
-                    List<FlatType> projectFlatTypes = project.getFlatTypes();
-                    List<Integer> projectUnits = project.getFlatTypeUnits();
-                    for (int i = 0; i < projectFlatTypes.size(); i++) {
-                        if (projectFlatTypes.get(i) == flatTypeFilter) {
-                            return projectUnits.get(i) > 0;
-                        }
-                    }
-                    return false;
-                });
+                // Flat types a project does not offer have no available units
+                projectStream = projectStream.filter(project -> project.getAvailableUnits(flatTypeFilter) > 0);
             } catch (IllegalArgumentException e) {
                 // Handle invalid flat type string if necessary, though FilterView should prevent this
                 System.err.println("Invalid flat type filter received: " + flatTypeFilterStr);
@@ -279,8 +336,6 @@ public class ProjectService implements IProjectService {
      */
     @Override
     public List<Project> getAllOfficersProjects(String officerNRIC) {
-        return ProjectRepository.getAll().stream()
-                .filter(p -> p.getOfficers().contains(officerNRIC))
-                .collect(Collectors.toList());
+        return ProjectRepository.getByOfficer(officerNRIC);
     }
 }
\ No newline at end of file
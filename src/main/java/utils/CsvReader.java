@@ -2,68 +2,76 @@ package utils;
 
 import interfaces.ICsvConfig;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.*;
-import java.util.regex.Pattern;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Utility class for reading CSV files into a list of key-value maps.
+ * Utility class for reading CSV files into {@link CsvRecord}s.
  * <p>
  * Uses headers defined in the given ICsvConfig to map values from each line.
- * Handles values enclosed in quotes and escaped commas within quoted values.
+ * Handles values enclosed in quotes, escaped quotes and line breaks within quoted values.
+ * Records can either be streamed one row at a time with {@link #open(ICsvConfig)} or
+ * collected into a list with {@link #read(ICsvConfig)}.
  * </p>
  */
 public class CsvReader {
-    private static final Pattern CSV_PATTERN = Pattern.compile(
-            ",(?=(?:[^\"]*\"[^\"]*\")*(?![^\"]*\"))"  // Split on commas outside quotes
-    );
-
     /**
-     * Reads a CSV file and returns a list of records represented as maps from header to value.
+     * Opens a CSV file for row-by-row reading.
+     * <p>
+     * The returned reader must be closed, typically with try-with-resources. Only one record is
+     * parsed at a time, so the caller never holds the whole file in memory. Large files whose
+     * config opts in to {@link ICsvConfig#isParallelLoad()} are instead parsed in parallel by
+     * {@link MappedCsvReader} and replayed in file order.
+     * </p>
      *
      * @param config the CSV configuration containing file path and headers
-     * @return a list of records, each as a map of column name to value
-     * @throws IOException if the file cannot be read
+     * @return a reader over the records in the file
+     * @throws IOException if the file cannot be opened
      */
-    public static List<Map<String, String>> read(ICsvConfig config) throws IOException {
-        List<Map<String, String>> records = new ArrayList<>();
-        List<String> headers = config.getHeaders();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(config.getFilePath()))) {
-            br.readLine(); // Skip header line
-
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                String[] values = CSV_PATTERN.split(line);
-                Map<String, String> record = new HashMap<>();
-
-                for (int i = 0; i < headers.size(); i++) {
-                    String value = i < values.length ? unescapeValue(values[i]) : "";
-                    record.put(headers.get(i), value);
-                }
-
-                records.add(record);
-            }
+    public static CsvRecordReader open(ICsvConfig config) throws IOException {
+        if (config.isParallelLoad() && MappedCsvReader.isApplicable(Files.size(Path.of(config.getFilePath())))) {
+            return new CsvRecordReader(MappedCsvReader.read(config));
         }
 
-        return records;
-    }
-
-    private static String unescapeValue(String value) {
-        if (value == null || value.isEmpty()) {
-            return "";
+        CsvTokenizer tokenizer = new CsvTokenizer(new FileReader(config.getFilePath()));
+        try {
+            return new CsvRecordReader(tokenizer, CsvSchema.of(config));
+        } catch (IOException e) {
+            tokenizer.close();
+            throw e;
         }
+    }
 
-        value = value.trim();
+    /**
+     * Opens a CSV file as a lazily populated stream of records.
+     * <p>
+     * The stream must be closed to release the file handle.
+     * </p>
+     *
+     * @param config the CSV configuration containing file path and headers
+     * @return a stream of records
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<CsvRecord> stream(ICsvConfig config) throws IOException {
+        return open(config).stream();
+    }
 
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-            value = value.substring(1, value.length() - 1);
+    /**
+     * Reads a CSV file and returns all of its records.
+     *
+     * @param config the CSV configuration containing file path and headers
+     * @return a list of records
+     * @throws IOException if the file cannot be read
+     */
+    public static List<CsvRecord> read(ICsvConfig config) throws IOException {
+        try (Stream<CsvRecord> records = stream(config)) {
+            return records.collect(Collectors.toCollection(ArrayList::new));
         }
-
-        return value.replace("\"\"", "\"");
     }
 }
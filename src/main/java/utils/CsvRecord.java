@@ -0,0 +1,99 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A single CSV row stored positionally according to a {@link CsvSchema}.
+ * <p>
+ * Values are held in a {@code String[]} indexed by column, so reading or writing a row does not
+ * allocate per-column map entries. Missing columns read as an empty string.
+ * </p>
+ */
+public final class CsvRecord {
+    private final CsvSchema schema;
+    private final String[] values;
+
+    /**
+     * Creates an empty record for the given schema.
+     *
+     * @param schema the column layout
+     */
+    public CsvRecord(CsvSchema schema) {
+        this.schema = schema;
+        this.values = new String[schema.size()];
+        clear();
+    }
+
+    CsvRecord(CsvSchema schema, String[] values) {
+        this.schema = schema;
+        if (values.length == schema.size()) {
+            this.values = values;
+        } else {
+            this.values = Arrays.copyOf(values, schema.size());
+            for (int i = values.length; i < this.values.length; i++) {
+                this.values[i] = "";
+            }
+        }
+    }
+
+    /**
+     * Gets the value of a column by header name.
+     *
+     * @param header the header name
+     * @return the column value, or {@code null} if the header is not part of the schema
+     */
+    public String get(String header) {
+        int index = schema.indexOf(header);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * Gets the value of a column by position.
+     *
+     * @param index the zero-based column index
+     * @return the column value
+     */
+    public String get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Sets the value of a column by header name. A {@code null} value is stored as an empty string.
+     *
+     * @param header the header name
+     * @param value the value to store
+     * @throws IllegalArgumentException if the header is not part of the schema
+     */
+    public void put(String header, String value) {
+        int index = schema.indexOf(header);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown CSV header: " + header);
+        }
+        values[index] = value != null ? value : "";
+    }
+
+    /**
+     * Resets every column to an empty string so the record can be reused for the next row.
+     */
+    public void clear() {
+        Arrays.fill(values, "");
+    }
+
+    /**
+     * Gets the number of columns in this record.
+     *
+     * @return the column count
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Gets the schema describing this record's columns.
+     *
+     * @return the schema
+     */
+    public CsvSchema getSchema() {
+        return schema;
+    }
+}
@@ -0,0 +1,113 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only reader that yields CSV records one row at a time.
+ * <p>
+ * Rows are parsed lazily as the caller iterates, so only the current record is held in memory.
+ * Files loaded with {@link MappedCsvReader} are parsed up front and simply replayed in order.
+ * The reader owns the underlying file handle and must be closed, ideally with try-with-resources.
+ * Read errors raised during iteration are rethrown as {@link UncheckedIOException}.
+ * </p>
+ */
+public class CsvRecordReader implements Iterable<CsvRecord>, Closeable {
+    private final CsvTokenizer tokenizer;
+    private final CsvSchema schema;
+    private final Iterator<CsvRecord> preloaded;
+    private CsvRecord next;
+    private boolean iterated;
+
+    CsvRecordReader(CsvTokenizer tokenizer, CsvSchema schema) throws IOException {
+        this.tokenizer = tokenizer;
+        this.schema = schema;
+        this.preloaded = null;
+        tokenizer.next(); // Skip header line
+    }
+
+    CsvRecordReader(List<CsvRecord> records) {
+        this.tokenizer = null;
+        this.schema = null;
+        this.preloaded = records.iterator();
+    }
+
+    /**
+     * Returns an iterator over the remaining records. A reader can only be iterated once.
+     *
+     * @return an iterator over the remaining records
+     * @throws IllegalStateException if the reader has already been iterated
+     */
+    @Override
+    public Iterator<CsvRecord> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("CSV records can only be iterated once");
+        }
+        iterated = true;
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = readNext();
+                }
+                return next != null;
+            }
+
+            @Override
+            public CsvRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CsvRecord record = next;
+                next = null;
+                return record;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream over the remaining records. Closing the stream closes this reader.
+     *
+     * @return a stream of records
+     */
+    public Stream<CsvRecord> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL),
+                false
+        ).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (tokenizer != null) {
+            tokenizer.close();
+        }
+    }
+
+    private CsvRecord readNext() {
+        if (preloaded != null) {
+            return preloaded.hasNext() ? preloaded.next() : null;
+        }
+        try {
+            String[] values = tokenizer.next();
+            return values != null ? new CsvRecord(schema, values) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package utils;
+
+import interfaces.ICsvConfig;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolved column layout of a CSV file.
+ * <p>
+ * Maps each header name to its column position once, so records can store their values
+ * positionally in a plain array. Schemas are cached by header list and shared by every
+ * {@link CsvRecord} read or written with the same {@link ICsvConfig}.
+ * </p>
+ */
+public final class CsvSchema {
+    private static final Map<List<String>, CsvSchema> CACHE = new ConcurrentHashMap<>();
+
+    private final List<String> headers;
+    private final Map<String, Integer> indexByHeader;
+
+    private CsvSchema(List<String> headers) {
+        this.headers = List.copyOf(headers);
+        this.indexByHeader = new HashMap<>();
+        for (int i = 0; i < this.headers.size(); i++) {
+            indexByHeader.put(this.headers.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the schema for the headers of the given configuration.
+     *
+     * @param config the CSV configuration
+     * @return the shared schema for the configuration's headers
+     */
+    public static CsvSchema of(ICsvConfig config) {
+        return CACHE.computeIfAbsent(config.getHeaders(), CsvSchema::new);
+    }
+
+    /**
+     * Gets the column headers in file order.
+     *
+     * @return an unmodifiable list of headers
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return the column count
+     */
+    public int size() {
+        return headers.size();
+    }
+
+    /**
+     * Gets the column position of a header.
+     *
+     * @param header the header name
+     * @return the zero-based column index, or -1 if the header is not part of this schema
+     */
+    public int indexOf(String header) {
+        Integer index = indexByHeader.get(header);
+        return index != null ? index : -1;
+    }
+}
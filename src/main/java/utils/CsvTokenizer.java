@@ -0,0 +1,198 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass, character-level CSV tokenizer.
+ * <p>
+ * Splits the input into records and fields with a small state machine, so every character is
+ * looked at exactly once. Supports quoted fields, escaped quotes ({@code ""}) and CR, LF or CRLF
+ * line endings, including line breaks embedded inside quoted fields as produced by {@link CsvWriter}.
+ * </p>
+ * <p>
+ * To stay compatible with the files already on disk, whitespace around unquoted fields is trimmed
+ * and records that contain nothing but whitespace are skipped.
+ * </p>
+ */
+public class CsvTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private enum State {
+        FIELD_START,
+        UNQUOTED,
+        QUOTED,
+        QUOTE_IN_QUOTED,
+        AFTER_QUOTED
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    /**
+     * Creates a tokenizer over the given reader. The reader does not need to be buffered.
+     *
+     * @param reader the source of CSV text
+     */
+    public CsvTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next non-blank record.
+     *
+     * @return the fields of the next record, or {@code null} at end of input
+     * @throws IOException if the underlying reader fails
+     */
+    public String[] next() throws IOException {
+        while (true) {
+            fields.clear();
+            field.setLength(0);
+            boolean hasContent = false;
+            boolean endOfRecord = false;
+            State state = State.FIELD_START;
+
+            while (!endOfRecord) {
+                int c = read();
+                if (c == -1) {
+                    if (!hasContent && fields.isEmpty() && state == State.FIELD_START) {
+                        return null;
+                    }
+                    if (state == State.QUOTED) {
+                        // Unterminated quote, keep what was read
+                        hasContent = true;
+                    }
+                    endOfRecord = true;
+                    break;
+                }
+
+                char ch = (char) c;
+                switch (state) {
+                    case FIELD_START:
+                        if (ch == '"') {
+                            state = State.QUOTED;
+                            hasContent = true;
+                        } else if (ch == ',') {
+                            fields.add("");
+                            hasContent = true;
+                        } else if (ch == '\n' || ch == '\r') {
+                            skipLineFeedAfter(ch);
+                            endOfRecord = true;
+                        } else if (ch != ' ' && ch != '\t') {
+                            field.append(ch);
+                            state = State.UNQUOTED;
+                            hasContent = true;
+                        }
+                        break;
+                    case UNQUOTED:
+                        if (ch == ',') {
+                            fields.add(trimTrailing(field));
+                            field.setLength(0);
+                            state = State.FIELD_START;
+                        } else if (ch == '\n' || ch == '\r') {
+                            skipLineFeedAfter(ch);
+                            endOfRecord = true;
+                        } else {
+                            field.append(ch);
+                        }
+                        break;
+                    case QUOTED:
+                        if (ch == '"') {
+                            state = State.QUOTE_IN_QUOTED;
+                        } else {
+                            field.append(ch);
+                        }
+                        break;
+                    case QUOTE_IN_QUOTED:
+                        if (ch == '"') {
+                            field.append('"');
+                            state = State.QUOTED;
+                        } else if (ch == ',') {
+                            fields.add(field.toString());
+                            field.setLength(0);
+                            state = State.FIELD_START;
+                        } else if (ch == '\n' || ch == '\r') {
+                            skipLineFeedAfter(ch);
+                            endOfRecord = true;
+                        } else if (ch != ' ' && ch != '\t') {
+                            // Stray text after a closing quote, keep it rather than drop data
+                            field.append(ch);
+                            state = State.AFTER_QUOTED;
+                        }
+                        break;
+                    case AFTER_QUOTED:
+                        if (ch == ',') {
+                            fields.add(trimTrailing(field));
+                            field.setLength(0);
+                            state = State.FIELD_START;
+                        } else if (ch == '\n' || ch == '\r') {
+                            skipLineFeedAfter(ch);
+                            endOfRecord = true;
+                        } else {
+                            field.append(ch);
+                        }
+                        break;
+                }
+            }
+
+            if (!hasContent) {
+                continue; // Blank line
+            }
+
+            if (state == State.UNQUOTED || state == State.AFTER_QUOTED) {
+                fields.add(trimTrailing(field));
+            } else {
+                fields.add(field.toString());
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            if (eof) {
+                return -1;
+            }
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                eof = true;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void skipLineFeedAfter(char ch) throws IOException {
+        if (ch != '\r') {
+            return;
+        }
+        int c = read();
+        if (c != -1 && c != '\n') {
+            position--; // Lone CR, push the character back
+        }
+    }
+
+    private static String trimTrailing(StringBuilder sb) {
+        int end = sb.length();
+        while (end > 0 && (sb.charAt(end - 1) == ' ' || sb.charAt(end - 1) == '\t')) {
+            end--;
+        }
+        return sb.substring(0, end);
+    }
+}
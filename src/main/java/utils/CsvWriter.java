@@ -3,10 +3,13 @@ package utils;
 import interfaces.ICsvConfig;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Utility class for writing data to CSV files.
@@ -18,54 +21,156 @@ import java.util.Map;
 public class CsvWriter {
 
     /**
-     * Writes a list of records to a CSV file using the configuration provided.
+     * Writes a collection of items to a CSV file, encoding each item into a reusable {@link CsvRecord}.
+     * <p>
+     * A single record is cleared and refilled for every item, so no per-row objects are created.
+     * The encoder must not keep a reference to the record it is given.
+     * </p>
      *
      * @param config  the CSV configuration including file path and headers
-     * @param records the list of records to write, where each record is a map of header to value
+     * @param items   the items to write, one row each
+     * @param encoder fills the record with the columns of an item
+     * @param <T>     the type of the items
      * @throws IOException if the file cannot be written
      */
-    public static void write(ICsvConfig config, List<Map<String, String>> records) throws IOException {
+    public static <T> void write(ICsvConfig config, Iterable<T> items, BiConsumer<T, CsvRecord> encoder) throws IOException {
+        CsvSchema schema = CsvSchema.of(config);
+        CsvRecord record = new CsvRecord(schema);
+
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(config.getFilePath()))) {
-            List<String> headers = config.getHeaders();
+            writeLine(writer, schema.getHeaders());
 
-            // Write headers
-            writeLine(writer, headers);
+            for (T item : items) {
+                record.clear();
+                encoder.accept(item, record);
+                writeRecord(writer, record);
+            }
+        }
+    }
 
-            // Write records
-            for (Map<String, String> record : records) {
-                List<String> values = headers.stream()
-                        .map(header -> record.getOrDefault(header, ""))
-                        .toList();
-                writeLine(writer, values);
+    /**
+     * Appends a single item to the end of a CSV file without rewriting the existing rows.
+     *
+     * @param config  the CSV configuration including file path and headers
+     * @param item    the item to append
+     * @param encoder fills the record with the columns of the item
+     * @param <T>     the type of the item
+     * @throws IOException if the file cannot be written
+     * @see #append(ICsvConfig, Iterable, BiConsumer)
+     */
+    public static <T> void append(ICsvConfig config, T item, BiConsumer<T, CsvRecord> encoder) throws IOException {
+        append(config, List.of(item), encoder);
+    }
+
+    /**
+     * Appends items to the end of a CSV file in one buffered write.
+     * <p>
+     * The header is written first if the file is missing or empty, and a line break is added
+     * if the existing file does not end with one. Rows already in the file are left untouched.
+     * </p>
+     *
+     * @param config  the CSV configuration including file path and headers
+     * @param items   the items to append, one row each
+     * @param encoder fills the record with the columns of an item
+     * @param <T>     the type of the items
+     * @throws IOException if the file cannot be written
+     */
+    public static <T> void append(ICsvConfig config, Iterable<T> items, BiConsumer<T, CsvRecord> encoder) throws IOException {
+        CsvSchema schema = CsvSchema.of(config);
+        CsvRecord record = new CsvRecord(schema);
+        File file = new File(config.getFilePath());
+        long length = file.length();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (length == 0) {
+                writeLine(writer, schema.getHeaders());
+            } else if (!endsWithLineBreak(file, length)) {
+                writer.write('\n');
+            }
+
+            for (T item : items) {
+                record.clear();
+                encoder.accept(item, record);
+                writeRecord(writer, record);
             }
         }
     }
 
+    /**
+     * Writes a list of records to a CSV file using the configuration provided.
+     *
+     * @param config  the CSV configuration including file path and headers
+     * @param records the list of records to write, where each record is a map of header to value
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(ICsvConfig config, List<Map<String, String>> records) throws IOException {
+        List<String> headers = config.getHeaders();
+        write(config, records, (map, record) -> {
+            for (String header : headers) {
+                record.put(header, map.getOrDefault(header, ""));
+            }
+        });
+    }
+
+    private static boolean endsWithLineBreak(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(length - 1);
+            int last = raf.read();
+            return last == '\n' || last == '\r';
+        }
+    }
+
     private static void writeLine(BufferedWriter writer, List<String> values) throws IOException {
         for (int i = 0; i < values.size(); i++) {
             if (i > 0) {
                 writer.write(',');
             }
-            writer.write(escapeValue(values.get(i)));
+            writeValue(writer, values.get(i));
+        }
+        writer.write('\n');
+    }
+
+    private static void writeRecord(BufferedWriter writer, CsvRecord record) throws IOException {
+        for (int i = 0; i < record.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, record.get(i));
         }
         writer.write('\n');
     }
 
-    private static String escapeValue(String value) {
-        if (value == null) {
-            return "";
+    private static void writeValue(BufferedWriter writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
         }
 
-        boolean needsQuoting = value.contains("\"") ||
-                value.contains(",") ||
-                value.contains("\n") ||
-                value.contains("\r") ||
-                value.trim().length() != value.length();
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
 
-        if (!needsQuoting) {
-            return value;
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
         }
+        writer.write('"');
+    }
 
-        return "\"" + value.replace("\"", "\"\"") + "\"";
+    private static boolean needsQuoting(String value) {
+        if (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == ',' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
     }
 }
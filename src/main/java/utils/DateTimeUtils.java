@@ -1,18 +1,36 @@
 package utils;
 
 import java.time.format.DateTimeFormatter;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Utility class for parsing and formatting {@link LocalDateTime} objects.
  * <p>
  * Uses ISO_LOCAL_DATE_TIME format by default. Supports null-safe operations.
  * </p>
+ * <p>
+ * Default-format timestamps such as {@code 2025-04-21T04:58:41.3601655} are read and written by
+ * hand, character by character, since the CSV files hold several per row. Anything the fast path
+ * doesn't recognise, such as surrounding spaces or years beyond four digits, goes through
+ * {@link DateTimeFormatter} as before, with the same results. The current time comes from a
+ * {@link Clock} in {@link #ZONE}, which tests can replace with {@link #setClock(Clock)}.
+ * </p>
  */
 public class DateTimeUtils {
     private static final DateTimeFormatter DEFAULT_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     public static final DateTimeFormatter DD_MM_YYYY_T_HH_MM_SS_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy'T'HH:mm:ss");
-    
+    /** The time zone all project and application times are in. */
+    public static final ZoneId ZONE = ZoneId.of("Asia/Singapore");
+
+    private static final int[] FRACTION_SCALE = { 1_000_000_000, 100_000_000, 10_000_000, 1_000_000,
+            100_000, 10_000, 1_000, 100, 10, 1 };
+
+    private static volatile Clock clock = Clock.system(ZONE);
+
 
     /**
      * Parses a date-time string into a {@link LocalDateTime} using the specified formatter.
@@ -25,6 +43,12 @@ public class DateTimeUtils {
         if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
             return null; 
         }
+        if (formatter == null || formatter == DEFAULT_FORMATTER) {
+            LocalDateTime parsed = parseIso(dateTimeStr, 0, dateTimeStr.length());
+            if (parsed != null) {
+                return parsed;
+            }
+        }
         try {
             return LocalDateTime.parse(dateTimeStr.trim(), formatter != null ? formatter : DEFAULT_FORMATTER);
         } catch (Exception e) {
@@ -43,6 +67,19 @@ public class DateTimeUtils {
         return parseDateTime(dateTimeStr, DEFAULT_FORMATTER);
     }
 
+    /**
+     * Parses part of a string using the default formatter, without copying it out first.
+     *
+     * @param text the text holding the date-time
+     * @param start the index of its first character
+     * @param end the index after its last character
+     * @return the parsed LocalDateTime, or null if that part is invalid
+     */
+    public static LocalDateTime parseDateTime(CharSequence text, int start, int end) {
+        LocalDateTime parsed = parseIso(text, start, end);
+        return parsed != null ? parsed : parseDateTime(text.subSequence(start, end).toString(), DEFAULT_FORMATTER);
+    }
+
     /**
      * Formats a {@link LocalDateTime} as a string using the specified formatter.
      *
@@ -54,6 +91,9 @@ public class DateTimeUtils {
         if (dateTime == null) {
             return "";
         }
+        if ((formatter == null || formatter == DEFAULT_FORMATTER) && dateTime.getYear() >= 0 && dateTime.getYear() <= 9999) {
+            return formatIso(dateTime);
+        }
         try {
             return dateTime.format(formatter != null ? formatter : DEFAULT_FORMATTER);
         } catch (Exception e) {
@@ -78,6 +118,134 @@ public class DateTimeUtils {
      * @return the current LocalDateTime
      */
     public static LocalDateTime getCurrentDateTime() {
-        return LocalDateTime.now(java.time.ZoneId.of("Asia/Singapore"));
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Returns the current time in milliseconds since the epoch, from the same clock as
+     * {@link #getCurrentDateTime()}.
+     *
+     * @return the current epoch milliseconds
+     */
+    public static long currentTimeMillis() {
+        return clock.millis();
+    }
+
+    /**
+     * Replaces the clock the current time is read from, e.g. with a fixed clock in tests.
+     *
+     * @param newClock the clock, or null to go back to the system clock in {@link #ZONE}
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock != null ? newClock.withZone(ZONE) : Clock.system(ZONE);
+    }
+
+    /**
+     * Converts a date-time in {@link #ZONE} to milliseconds since the epoch, for comparing
+     * against {@link #currentTimeMillis()}.
+     *
+     * @param dateTime the date-time
+     * @return the epoch milliseconds
+     */
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Converts milliseconds since the epoch to a date-time in {@link #ZONE}.
+     *
+     * @param epochMilli the epoch milliseconds
+     * @return the date-time
+     */
+    public static LocalDateTime fromEpochMilli(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZONE);
+    }
+
+    // Reads yyyy-MM-ddTHH:mm[:ss[.fraction]], or returns null for anything else
+    private static LocalDateTime parseIso(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < 16 || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-'
+                || text.charAt(start + 10) != 'T' || text.charAt(start + 13) != ':') {
+            return null;
+        }
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || text.charAt(start + 16) != ':') {
+                return null;
+            }
+            second = digits(text, start + 17, 2);
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                if (text.charAt(start + 19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return null;
+                }
+                nano = digits(text, start + 20, fractionDigits);
+                if (nano < 0) {
+                    return null;
+                }
+                nano *= FRACTION_SCALE[fractionDigits];
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            // Out-of-range fields; the formatter reports them
+            return null;
+        }
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Writes what ISO_LOCAL_DATE_TIME does for four-digit years: seconds always, fraction without trailing zeros
+    private static String formatIso(LocalDateTime dateTime) {
+        char[] out = new char[29];
+        writeDigits(out, 0, dateTime.getYear(), 4);
+        out[4] = '-';
+        writeDigits(out, 5, dateTime.getMonthValue(), 2);
+        out[7] = '-';
+        writeDigits(out, 8, dateTime.getDayOfMonth(), 2);
+        out[10] = 'T';
+        writeDigits(out, 11, dateTime.getHour(), 2);
+        out[13] = ':';
+        writeDigits(out, 14, dateTime.getMinute(), 2);
+        out[16] = ':';
+        writeDigits(out, 17, dateTime.getSecond(), 2);
+        int length = 19;
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            out[19] = '.';
+            writeDigits(out, 20, nano, 9);
+            length = 29;
+            while (out[length - 1] == '0') {
+                length--;
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    private static void writeDigits(char[] out, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
     }
 }
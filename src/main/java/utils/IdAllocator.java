@@ -0,0 +1,247 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the sequential IDs of projects, applications, enquiries and registrations, e.g. P12.
+ * <p>
+ * Each sequence is an atomic counter, so concurrent sessions never get the same ID. Once
+ * {@link #open(Path)} has been called, the counters are kept in a small sequence file. Rather than
+ * writing it for every ID, a sequence reserves the next {@value #RESERVE_BLOCK} values in the file
+ * before handing them out, and only hands them out once that write has reached the disk. After a
+ * crash, IDs continue from the end of the reserved range, leaving a gap but never reusing one. If
+ * the reservation cannot be written, taking the ID fails. {@link #save()} records the exact counters
+ * on a clean shutdown.
+ * </p>
+ * <p>
+ * Startup reads the counters from the file instead of deriving them from every loaded ID. If the
+ * file is missing, call {@link #observe(String)} with the existing IDs once and then {@link #save()}.
+ * Before {@link #open(Path)}, e.g. in tests, the counters live only in memory.
+ * </p>
+ */
+public final class IdAllocator {
+    /** Project IDs, e.g. P12. */
+    public static final IdAllocator PROJECTS = new IdAllocator("project", "P");
+    /** Application IDs, e.g. A12. */
+    public static final IdAllocator APPLICATIONS = new IdAllocator("application", "A");
+    /** Enquiry IDs, e.g. E12. */
+    public static final IdAllocator ENQUIRIES = new IdAllocator("enquiry", "E");
+    /** Officer registration IDs, e.g. R12. */
+    public static final IdAllocator REGISTRATIONS = new IdAllocator("registration", "R");
+
+    private static final List<IdAllocator> SEQUENCES = List.of(PROJECTS, APPLICATIONS, ENQUIRIES, REGISTRATIONS);
+    private static final String HEADER = "Sequence,LastID";
+    private static final int RESERVE_BLOCK = 1000;
+
+    // Guards the file and every sequence's reserved mark
+    private static final Object fileLock = new Object();
+    private static Path file;
+
+    private final String name;
+    private final String prefix;
+    private final AtomicLong last = new AtomicLong();
+    private volatile long reserved;
+
+    private IdAllocator(String name, String prefix) {
+        this.name = name;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Gets the next ID, e.g. P13.
+     *
+     * @return the ID
+     * @throws UncheckedIOException if the ID could not be reserved in the sequence file
+     */
+    public String next() {
+        return prefix + nextBlock(1);
+    }
+
+    /**
+     * Takes a block of consecutive IDs at once, e.g. for a batch insert. Format each one with
+     * {@link #format(long)}.
+     *
+     * @param count the number of IDs to take
+     * @return the first value of the block; the block ends at {@code first + count - 1}
+     * @throws IllegalArgumentException if count is not positive
+     * @throws UncheckedIOException if the block could not be reserved in the sequence file; its values
+     *         are skipped, and the next call tries the write again
+     */
+    public long nextBlock(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + count);
+        }
+        long first = last.getAndAdd(count) + 1;
+        long end = first + count - 1;
+        if (end > reserved) {
+            reserveThrough(end);
+        }
+        return first;
+    }
+
+    /**
+     * Formats a value taken with {@link #nextBlock(int)} as an ID.
+     *
+     * @param value the value
+     * @return the ID, e.g. P13
+     */
+    public String format(long value) {
+        return prefix + value;
+    }
+
+    /**
+     * Gets the last value handed out.
+     *
+     * @return the last value, or 0 if none have been
+     */
+    public long getLast() {
+        return last.get();
+    }
+
+    /**
+     * Makes sure an existing ID is never handed out again, e.g. when rebuilding a missing
+     * sequence file. IDs without this sequence's prefix and a number after it are ignored.
+     *
+     * @param id the existing ID
+     */
+    public void observe(String id) {
+        if (id == null || id.length() <= prefix.length() || !id.startsWith(prefix)) {
+            return;
+        }
+        long value = 0;
+        for (int i = prefix.length(); i < id.length(); i++) {
+            int digit = id.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return;
+            }
+            value = value * 10 + digit;
+        }
+        last.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Restores the counters from a sequence file and keeps them there from now on.
+     *
+     * @param path the sequence file, e.g. data/sequences.csv
+     * @return true if the file was read; false if it is missing or unreadable, in which case the
+     *         counters should be rebuilt with {@link #observe(String)} and written with {@link #save()}
+     */
+    public static boolean open(Path path) {
+        synchronized (fileLock) {
+            file = path;
+            if (!Files.isRegularFile(path)) {
+                return false;
+            }
+            try {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+                    System.err.println("Ignoring sequence file with unexpected header: " + path);
+                    return false;
+                }
+                for (String line : lines.subList(1, lines.size())) {
+                    int comma = line.indexOf(',');
+                    if (comma < 0) {
+                        continue;
+                    }
+                    IdAllocator sequence = byName(line.substring(0, comma));
+                    if (sequence != null) {
+                        // Values up to the reserved mark may have been handed out before a crash
+                        long value = Long.parseLong(line.substring(comma + 1).trim());
+                        sequence.last.accumulateAndGet(value, Math::max);
+                        sequence.reserved = sequence.last.get();
+                    }
+                }
+                return true;
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Error reading sequence file " + path + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes the exact counters to the sequence file, so the next start continues without a gap.
+     * Call it once no more IDs are being taken, e.g. on shutdown. Does nothing before {@link #open(Path)}.
+     */
+    public static void save() {
+        synchronized (fileLock) {
+            long[] marks = new long[SEQUENCES.size()];
+            for (int i = 0; i < marks.length; i++) {
+                marks[i] = SEQUENCES.get(i).last.get();
+            }
+            try {
+                write(marks);
+            } catch (IOException e) {
+                // The reserved marks already in the file still cover every ID handed out
+                System.err.println("Error writing sequence file " + file + ": " + e.getMessage());
+                return;
+            }
+            for (int i = 0; i < marks.length; i++) {
+                SEQUENCES.get(i).reserved = marks[i];
+            }
+        }
+    }
+
+    /**
+     * Stops keeping the counters in the sequence file. The counters themselves are kept.
+     */
+    public static void close() {
+        synchronized (fileLock) {
+            file = null;
+        }
+    }
+
+    private void reserveThrough(long end) {
+        synchronized (fileLock) {
+            if (end <= reserved) {
+                return;
+            }
+            long[] marks = new long[SEQUENCES.size()];
+            for (int i = 0; i < marks.length; i++) {
+                IdAllocator sequence = SEQUENCES.get(i);
+                marks[i] = sequence == this ? end + RESERVE_BLOCK : sequence.reserved;
+            }
+            try {
+                write(marks);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not reserve " + name + " IDs in " + file, e);
+            }
+            // Published only once written, since nextBlock hands out anything up to it without the lock
+            reserved = marks[SEQUENCES.indexOf(this)];
+        }
+    }
+
+    private static IdAllocator byName(String name) {
+        for (IdAllocator sequence : SEQUENCES) {
+            if (sequence.name.equals(name)) {
+                return sequence;
+            }
+        }
+        return null;
+    }
+
+    // Called with fileLock held; marks are in SEQUENCES order
+    private static void write(long[] marks) throws IOException {
+        if (file == null) {
+            return;
+        }
+        StringBuilder content = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < marks.length; i++) {
+            content.append(SEQUENCES.get(i).name).append(',').append(marks[i]).append('\n');
+        }
+
+        Path tempPath = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempPath, content.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        Files.move(tempPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,252 @@
+package utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexes values by a time window, e.g. projects by their application period, to answer which
+ * windows are open at an instant or overlap a period without comparing against every value.
+ * <p>
+ * The windows are kept in a treap ordered by start, where each node also records the latest end
+ * in its subtree, so whole subtrees that end too early are skipped. Adding, moving or removing a
+ * window is O(log n) expected, and a query is O(log n + k) for k matches in practice. Results
+ * come back in the order their keys were first added, which for the repositories is file order.
+ * </p>
+ * <p>
+ * Windows are open, like {@code Project.isApplicationOpen}: a window is open at {@code t} when
+ * {@code start < t < end}. Values without both dates are not indexed. All methods are thread-safe.
+ * </p>
+ *
+ * @param <T> the type of value indexed
+ */
+public final class IntervalIndex<T> {
+    private final class Node {
+        private final long seq;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private final T value;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long seq, T value, LocalDateTime start, LocalDateTime end) {
+            this.seq = seq;
+            this.value = value;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private int compareTo(LocalDateTime otherStart, long otherSeq) {
+            int c = start.compareTo(otherStart);
+            return c != 0 ? c : Long.compare(seq, otherSeq);
+        }
+    }
+
+    private final Map<String, Node> byKey = new HashMap<>();
+    private final Map<String, Long> sequence = new HashMap<>();
+    private long nextSeq;
+    private Node root;
+
+    /**
+     * Adds a value, or moves it if its key is already indexed.
+     *
+     * @param key the value's unique key, e.g. a project ID
+     * @param value the value
+     * @param start the start of its window, or null to leave it unindexed
+     * @param end the end of its window, or null to leave it unindexed
+     */
+    public synchronized void put(String key, T value, LocalDateTime start, LocalDateTime end) {
+        unlink(key);
+        if (start == null || end == null) {
+            return;
+        }
+        long seq = sequence.computeIfAbsent(key, k -> nextSeq++);
+        Node node = new Node(seq, value, start, end);
+        root = insert(root, node);
+        byKey.put(key, node);
+    }
+
+    /**
+     * Removes a value. If its key is added again, it goes after every key added so far.
+     *
+     * @param key the value's key
+     * @return true if it was indexed
+     */
+    public synchronized boolean remove(String key) {
+        sequence.remove(key);
+        return unlink(key);
+    }
+
+    /**
+     * Removes every value and forgets the order keys were added in.
+     */
+    public synchronized void clear() {
+        byKey.clear();
+        sequence.clear();
+        nextSeq = 0;
+        root = null;
+    }
+
+    /**
+     * Gets the number of values indexed.
+     *
+     * @return the value count
+     */
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    /**
+     * Finds the values whose window is open at an instant, i.e. {@code start < t < end}.
+     *
+     * @param t the instant
+     * @return the matching values, in the order their keys were first added
+     */
+    public synchronized List<T> openAt(LocalDateTime t) {
+        return overlapping(t, t);
+    }
+
+    /**
+     * Finds the values whose window overlaps a period, i.e. {@code start < to} and {@code end > from}.
+     *
+     * @param from the start of the period
+     * @param to the end of the period
+     * @return the matching values, in the order their keys were first added
+     */
+    public synchronized List<T> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Node> matches = new ArrayList<>();
+        collect(root, from, to, matches);
+        matches.sort(Comparator.comparingLong(node -> node.seq));
+        List<T> values = new ArrayList<>(matches.size());
+        for (Node node : matches) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    /**
+     * Finds the earliest window start at or after an instant.
+     *
+     * @param t the instant
+     * @return the start, or null if every window starts before {@code t}
+     */
+    public synchronized LocalDateTime firstStartAtOrAfter(LocalDateTime t) {
+        LocalDateTime first = null;
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(t)) {
+                node = node.right;
+            } else {
+                first = node.start;
+                node = node.left;
+            }
+        }
+        return first;
+    }
+
+    private boolean unlink(String key) {
+        Node node = byKey.remove(key);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        return true;
+    }
+
+    private void collect(Node node, LocalDateTime from, LocalDateTime to, List<Node> matches) {
+        // Nothing in this subtree ends after the period starts
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, matches);
+        // This node and everything to its right start at or after the period ends
+        if (!node.start.isBefore(to)) {
+            return;
+        }
+        if (node.end.isAfter(from)) {
+            matches.add(node);
+        }
+        collect(node.right, from, to, matches);
+    }
+
+    private Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.compareTo(node.start, node.seq) < 0) {
+            node.left = insert(node.left, item);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, item);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private Node delete(Node node, Node item) {
+        if (node == null) {
+            return null;
+        }
+        if (node == item) {
+            return merge(node.left, node.right);
+        }
+        if (item.compareTo(node.start, node.seq) < 0) {
+            node.left = delete(node.left, item);
+        } else {
+            node.right = delete(node.right, item);
+        }
+        return update(node);
+    }
+
+    private Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = update(node);
+        return update(top);
+    }
+
+    private Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = update(node);
+        return update(top);
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private Node update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+        return node;
+    }
+}
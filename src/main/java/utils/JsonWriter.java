@@ -0,0 +1,314 @@
+package utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes JSON straight into a growable UTF-8 byte buffer.
+ * <p>
+ * Values are encoded as they are written, with no intermediate strings or object trees, so a
+ * response costs one buffer plus whatever the caller already holds. Commas are tracked with one
+ * bit per nesting level, which allows up to 64 levels. The writer does not check that names and
+ * values alternate correctly inside objects; callers are expected to write well-formed documents.
+ * </p>
+ */
+public final class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_DEPTH = 64;
+
+    private byte[] buf;
+    private int count;
+    private int depth;
+    // Bit n is set once the container at depth n has a member, so the next one needs a comma
+    private long hasMember;
+    private boolean afterName;
+
+    /**
+     * Creates a writer with a default initial capacity.
+     */
+    public JsonWriter() {
+        this(512);
+    }
+
+    /**
+     * Creates a writer with the given initial capacity.
+     *
+     * @param capacity the initial buffer size in bytes
+     */
+    public JsonWriter(int capacity) {
+        this.buf = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Starts an object, e.g. as a value or an array element.
+     *
+     * @return this writer
+     * @throws IllegalStateException if nesting is deeper than 64 levels
+     */
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return this writer
+     * @throws IllegalStateException if nesting is deeper than 64 levels
+     */
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Writes the name of the next object member.
+     *
+     * @param name the member name
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        separate();
+        string(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null} if the value is null.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        string(value);
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(long value) {
+        separate();
+        if (value == Long.MIN_VALUE) {
+            ascii("-9223372036854775808");
+            return this;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = count + digits - 1; i >= count; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count += digits;
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(boolean value) {
+        separate();
+        ascii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a {@code null} value.
+     *
+     * @return this writer
+     */
+    public JsonWriter nullValue() {
+        separate();
+        ascii("null");
+        return this;
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return the document length in bytes
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Copies the document to a stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /**
+     * Clears the document so the writer and its buffer can be reused.
+     */
+    public void reset() {
+        count = 0;
+        depth = 0;
+        hasMember = 0;
+        afterName = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private JsonWriter open(char bracket) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested deeper than " + MAX_DEPTH + " levels");
+        }
+        separate();
+        write(bracket);
+        depth++;
+        hasMember &= ~(1L << (depth - 1));
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No open JSON container to close");
+        }
+        depth--;
+        write(bracket);
+        return this;
+    }
+
+    // Writes the comma before a member or element, except directly after a name
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        long bit = 1L << (depth - 1);
+        if ((hasMember & bit) != 0) {
+            write(',');
+        } else {
+            hasMember |= bit;
+        }
+    }
+
+    private void string(String s) {
+        int length = s.length();
+        // Sized for plain ASCII; escapes and multi-byte chars grow the buffer as they are written
+        ensure(length + 2);
+        buf[count++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                if (count == buf.length) {
+                    ensure(length - i + 1);
+                }
+                buf[count++] = (byte) c;
+            } else {
+                escape(s, i, c);
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+        write('"');
+    }
+
+    private void escape(String s, int i, char c) {
+        switch (c) {
+            case '"' -> ascii("\\\"");
+            case '\\' -> ascii("\\\\");
+            case '\n' -> ascii("\\n");
+            case '\r' -> ascii("\\r");
+            case '\t' -> ascii("\\t");
+            default -> {
+                if (c < 0x20) {
+                    ensure(6);
+                    buf[count++] = '\\';
+                    buf[count++] = 'u';
+                    buf[count++] = '0';
+                    buf[count++] = '0';
+                    buf[count++] = HEX[c >> 4];
+                    buf[count++] = HEX[c & 0xF];
+                } else if (c < 0x800) {
+                    ensure(2);
+                    buf[count++] = (byte) (0xC0 | (c >> 6));
+                    buf[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(i + 1));
+                    ensure(4);
+                    buf[count++] = (byte) (0xF0 | (cp >> 18));
+                    buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // A lone surrogate cannot be encoded as UTF-8
+                    ascii("\\ufffd");
+                } else {
+                    ensure(3);
+                    buf[count++] = (byte) (0xE0 | (c >> 12));
+                    buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    private void ascii(String s) {
+        int length = s.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void write(char c) {
+        ensure(1);
+        buf[count++] = (byte) c;
+    }
+
+    private void ensure(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package utils;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A hash map from primitive {@code long} keys to values, e.g. users by packed NRIC.
+ * <p>
+ * Keys and values sit in two parallel arrays with open addressing and linear probing, so a lookup
+ * is a multiply, a shift and a few array reads, with no boxing and no {@code equals} calls.
+ * Removal shifts later entries back instead of leaving tombstones. Null values are not stored.
+ * </p>
+ * <p>
+ * All methods are thread-safe. Writes take a {@link StampedLock} exclusively and lookups read
+ * optimistically, retrying under the read lock only if a write got in the way, like
+ * {@code CsvRepository}.
+ * </p>
+ *
+ * @param <V> the type of values
+ */
+public final class LongHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    // Replaced as a whole on resize, so a reader always sees keys and values of the same length
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int shift;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Table table = new Table(MIN_CAPACITY);
+    private int size;
+
+    /**
+     * Looks up a value.
+     *
+     * @param key the key
+     * @return the value, or null if there is none
+     */
+    public V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        V value = find(table, key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(table, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Adds or replaces a value.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value it replaced, or null
+     * @throws NullPointerException if value is null
+     */
+    public V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Adds a value unless the key already has one.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the existing value, or null if this one was added
+     * @throws NullPointerException if value is null
+     */
+    public V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the key
+     * @return the value removed, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int slot = table.slot(key);
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            V removed = (V) values[slot];
+            if (removed == null) {
+                return null;
+            }
+
+            // Shift later entries of the probe run back into the gap, unless they already sit at or after their home slot
+            int gap = slot;
+            for (int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                int home = table.slot(keys[next]);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            values[gap] = null;
+            keys[gap] = 0;
+            size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(MIN_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the value count
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int count = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V find(Table table, long key) {
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        int slot = table.slot(key);
+        // Bounded, since an optimistic read may see a table mid-write with no empty slot on its path
+        for (int probes = 0; probes < keys.length; probes++) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(long key, V value, boolean replace) {
+        if (value == null) {
+            throw new NullPointerException("LongHashMap does not store null values");
+        }
+        long stamp = lock.writeLock();
+        try {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int slot = table.slot(key);
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    V previous = (V) values[slot];
+                    if (replace) {
+                        values[slot] = value;
+                    }
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            // Keep the table at most half full so probe runs stay short
+            if (++size > keys.length / 2) {
+                resize(keys.length * 2);
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Called with the write lock held
+    private void resize(int capacity) {
+        Table old = table;
+        Table resized = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.values[i] != null) {
+                int slot = resized.slot(old.keys[i]);
+                while (resized.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                resized.keys[slot] = old.keys[i];
+                resized.values[slot] = old.values[i];
+            }
+        }
+        table = resized;
+    }
+}
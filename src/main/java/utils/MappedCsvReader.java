@@ -0,0 +1,232 @@
+package utils;
+
+import interfaces.ICsvConfig;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel CSV reader over a memory-mapped file.
+ * <p>
+ * The file is mapped with {@link FileChannel#map}, cut into chunks at record boundaries and each
+ * chunk is tokenized on the common {@link ForkJoinPool}. Boundaries are found with a single byte
+ * scan that tracks quotes the way {@link CsvTokenizer} does, so a line break inside a quoted field
+ * never splits a record, and a stray quote inside an unquoted field (e.g. {@code 5" tall}) is
+ * taken literally rather than opening one. Chunks are
+ * joined back in file order, giving exactly the records a sequential read would.
+ * </p>
+ * <p>
+ * Only ASCII-compatible charsets are supported, since boundaries are located on raw bytes.
+ * Repositories opt in through {@link ICsvConfig#isParallelLoad()}.
+ * </p>
+ */
+public class MappedCsvReader {
+    /** Files smaller than this are read sequentially; mapping and forking would cost more than they save. */
+    public static final long PARALLEL_THRESHOLD_BYTES = 1L << 20;
+
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    // The CsvTokenizer states that decide whether a quote opens or closes a field
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final Set<Charset> SUPPORTED_CHARSETS = Set.of(
+            StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1);
+
+    private MappedCsvReader() {}
+
+    /**
+     * Checks whether a file of the given size can be read with this reader under the platform charset,
+     * and whether there is more than one core to parse it on.
+     *
+     * @param size the file size in bytes
+     * @return true if parallel reading is possible and worthwhile
+     */
+    public static boolean isApplicable(long size) {
+        return size >= PARALLEL_THRESHOLD_BYTES
+                && size <= Integer.MAX_VALUE
+                && ForkJoinPool.getCommonPoolParallelism() > 1
+                && SUPPORTED_CHARSETS.contains(Charset.defaultCharset());
+    }
+
+    /**
+     * Reads all records of a CSV file, sizing the chunks from the file length and pool parallelism.
+     *
+     * @param config the CSV configuration containing file path and headers
+     * @return all records in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<CsvRecord> read(ICsvConfig config) throws IOException {
+        return read(config, 0);
+    }
+
+    /**
+     * Reads all records of a CSV file using roughly the given number of chunks.
+     *
+     * @param config the CSV configuration containing file path and headers
+     * @param chunkCount the number of chunks to split the file into, or 0 to choose automatically
+     * @return all records in file order
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    public static List<CsvRecord> read(ICsvConfig config, int chunkCount) throws IOException {
+        CsvSchema schema = CsvSchema.of(config);
+        Charset charset = Charset.defaultCharset();
+
+        try (FileChannel channel = FileChannel.open(Path.of(config.getFilePath()), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + config.getFilePath());
+            }
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int length = (int) size;
+            int dataStart = findRecordEnd(buffer, 0, length); // Skip header line
+
+            if (chunkCount <= 0) {
+                int parallelism = ForkJoinPool.commonPool().getParallelism();
+                chunkCount = (int) Math.max(1, Math.min(parallelism * 4L, (length - dataStart) / MIN_CHUNK_BYTES));
+            }
+            int[] boundaries = findChunkBoundaries(buffer, dataStart, length, chunkCount);
+
+            List<Callable<List<CsvRecord>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                int start = boundaries[i];
+                int end = boundaries[i + 1];
+                if (start < end) {
+                    tasks.add(() -> parseChunk(buffer.slice(start, end - start), charset, schema));
+                }
+            }
+
+            List<List<CsvRecord>> chunks = new ArrayList<>(tasks.size());
+            int total = 0;
+            for (Future<List<CsvRecord>> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                List<CsvRecord> chunk = getChunk(future);
+                chunks.add(chunk);
+                total += chunk.size();
+            }
+
+            List<CsvRecord> records = new ArrayList<>(total);
+            for (List<CsvRecord> chunk : chunks) {
+                records.addAll(chunk);
+            }
+            return records;
+        }
+    }
+
+    private static List<CsvRecord> parseChunk(ByteBuffer bytes, Charset charset, CsvSchema schema) throws IOException {
+        CharBuffer chars = charset.decode(bytes);
+        List<CsvRecord> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(
+                new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()))) {
+            String[] values;
+            while ((values = tokenizer.next()) != null) {
+                records.add(new CsvRecord(schema, values));
+            }
+        }
+        return records;
+    }
+
+    private static List<CsvRecord> getChunk(Future<List<CsvRecord>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading CSV chunks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to parse CSV chunk", cause);
+        }
+    }
+
+    /**
+     * Finds chunk start offsets, each just after a line break that lies outside quotes.
+     * The first entry is {@code dataStart} and the last is {@code length}.
+     */
+    private static int[] findChunkBoundaries(ByteBuffer buffer, int dataStart, int length, int chunkCount) {
+        int[] boundaries = new int[chunkCount + 1];
+        int found = 0;
+        boundaries[found++] = dataStart;
+
+        long span = length - dataStart;
+        int nextTarget = dataStart + (int) (span / chunkCount);
+        int state = FIELD_START;
+
+        for (int i = dataStart; i < length && found < chunkCount; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' && state != QUOTED && i + 1 >= nextTarget) {
+                boundaries[found++] = i + 1;
+                nextTarget = dataStart + (int) (span * found / chunkCount);
+            }
+            state = nextState(state, b);
+        }
+
+        boundaries[found++] = length;
+        return found == boundaries.length ? boundaries : Arrays.copyOf(boundaries, found);
+    }
+
+    private static int findRecordEnd(ByteBuffer buffer, int start, int length) {
+        int state = FIELD_START;
+        for (int i = start; i < length; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' && state != QUOTED) {
+                return i + 1;
+            }
+            state = nextState(state, b);
+        }
+        return length;
+    }
+
+    /**
+     * Follows {@link CsvTokenizer}: a quote opens a field only at its start, possibly after blanks,
+     * and inside a quoted field a doubled quote is an escape. Text after a closing quote counts as
+     * unquoted, as the tokenizer keeps it in the same field.
+     */
+    private static int nextState(int state, byte b) {
+        switch (state) {
+            case QUOTED:
+                return b == '"' ? QUOTE_IN_QUOTED : QUOTED;
+            case QUOTE_IN_QUOTED:
+                if (b == '"') {
+                    return QUOTED;
+                }
+                if (b == ',' || b == '\n' || b == '\r') {
+                    return FIELD_START;
+                }
+                return b == ' ' || b == '\t' ? QUOTE_IN_QUOTED : UNQUOTED;
+            case FIELD_START:
+                if (b == '"') {
+                    return QUOTED;
+                }
+                return b == ',' || b == '\n' || b == '\r' || b == ' ' || b == '\t' ? FIELD_START : UNQUOTED;
+            default:
+                return b == ',' || b == '\n' || b == '\r' ? FIELD_START : UNQUOTED;
+        }
+    }
+}
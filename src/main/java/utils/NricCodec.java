@@ -0,0 +1,98 @@
+package utils;
+
+/**
+ * Packs NRICs into a single {@code long} and shares one {@code String} per NRIC.
+ * <p>
+ * An NRIC that {@link ValidationUtils#isValidNRIC} accepts with an upper-case ASCII check letter,
+ * e.g. S1234567A, packs as the prefix bit, the seven digits and the letter. Packed values are
+ * non-negative and equal exactly when the NRICs are equal, so they can key a {@link LongHashMap}
+ * without hashing or comparing strings. Anything else packs to {@link #INVALID}.
+ * </p>
+ */
+public final class NricCodec {
+    /** The packed value of a string that is not a packable NRIC. */
+    public static final long INVALID = -1L;
+
+    private static final int LETTER_BITS = 5;
+    private static final int DIGIT_BITS = 24;
+
+    // One shared string per packed NRIC, so rows loaded from different files don't each keep a copy
+    private static final LongHashMap<String> interned = new LongHashMap<>();
+
+    private NricCodec() {}
+
+    /**
+     * Packs an NRIC into a long.
+     *
+     * @param nric the NRIC, e.g. S1234567A
+     * @return the packed value, or {@link #INVALID} if it is not a packable NRIC
+     */
+    public static long pack(String nric) {
+        if (nric == null || nric.length() != 9) {
+            return INVALID;
+        }
+        char prefix = nric.charAt(0);
+        if (prefix != 'S' && prefix != 'T') {
+            return INVALID;
+        }
+        char letter = nric.charAt(8);
+        if (letter < 'A' || letter > 'Z') {
+            return INVALID;
+        }
+        long digits = 0;
+        for (int i = 1; i < 8; i++) {
+            int digit = nric.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            digits = digits * 10 + digit;
+        }
+        return (prefix == 'T' ? 1L : 0L) << (DIGIT_BITS + LETTER_BITS)
+                | digits << LETTER_BITS
+                | (letter - 'A');
+    }
+
+    /**
+     * Turns a packed value back into its NRIC.
+     *
+     * @param packed a value returned by {@link #pack(String)}
+     * @return the NRIC
+     * @throws IllegalArgumentException if the value is not a packed NRIC
+     */
+    public static String unpack(long packed) {
+        if (packed < 0 || packed >>> (DIGIT_BITS + LETTER_BITS) > 1
+                || (packed & ((1 << LETTER_BITS) - 1)) > 'Z' - 'A'
+                || (packed >>> LETTER_BITS & ((1 << DIGIT_BITS) - 1)) > 9_999_999) {
+            throw new IllegalArgumentException("Not a packed NRIC: " + packed);
+        }
+        char[] nric = new char[9];
+        nric[0] = packed >>> (DIGIT_BITS + LETTER_BITS) == 1 ? 'T' : 'S';
+        long digits = packed >>> LETTER_BITS & ((1 << DIGIT_BITS) - 1);
+        for (int i = 7; i >= 1; i--) {
+            nric[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        nric[8] = (char) ('A' + (packed & ((1 << LETTER_BITS) - 1)));
+        return new String(nric);
+    }
+
+    /**
+     * Returns the shared instance of an NRIC, so repeated NRICs across loaded rows are one string.
+     * Strings that are not packable NRICs, including null, are returned unchanged.
+     *
+     * @param nric the NRIC
+     * @return an equal string, shared with every other caller that interned it
+     */
+    public static String intern(String nric) {
+        long packed = pack(nric);
+        if (packed == INVALID) {
+            return nric;
+        }
+        String shared = interned.get(packed);
+        if (shared != null) {
+            return shared;
+        }
+        shared = interned.putIfAbsent(packed, nric);
+        return shared != null ? shared : nric;
+    }
+}
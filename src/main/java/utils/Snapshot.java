@@ -0,0 +1,148 @@
+package utils;
+
+import interfaces.ICsvConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary snapshots of repository contents for fast warm starts.
+ * <p>
+ * A snapshot is written next to its CSV file on shutdown and records the CSV's size and
+ * modification time. On the next start it is used instead of the CSV only if both still match and
+ * the headers are unchanged, so the CSV remains the source of truth: editing it by hand, or any
+ * write the application makes to it, invalidates the snapshot. A missing, stale or unreadable
+ * snapshot simply makes the repository fall back to the CSV.
+ * </p>
+ */
+public class Snapshot {
+    private static final int MAGIC = 0x42544F53; // "BTOS"
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Writes one item to a snapshot.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    public interface Encoder<T> {
+        void write(T item, SnapshotOutput out) throws IOException;
+    }
+
+    /**
+     * Reads one item from a snapshot.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        /**
+         * @return the item, or {@code null} to skip it
+         */
+        T read(SnapshotInput in) throws IOException;
+    }
+
+    private Snapshot() {}
+
+    /**
+     * Gets the snapshot file belonging to a CSV file, e.g. {@code data/users.snap} for {@code data/users.csv}.
+     *
+     * @param config the CSV configuration
+     * @return the snapshot path
+     */
+    public static Path pathFor(ICsvConfig config) {
+        String csvPath = config.getFilePath();
+        String base = csvPath.endsWith(".csv") ? csvPath.substring(0, csvPath.length() - 4) : csvPath;
+        return Path.of(base + ".snap");
+    }
+
+    /**
+     * Loads the items of a snapshot if it is still in sync with its CSV file.
+     *
+     * @param config  the CSV configuration the snapshot was written for
+     * @param decoder reads one item
+     * @param <T>     the type of the items
+     * @return the items in their original order, or {@code null} if the CSV must be read instead
+     */
+    public static <T> List<T> load(ICsvConfig config, Decoder<T> decoder) {
+        Path snapshotPath = pathFor(config);
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            SnapshotInput in = new SnapshotInput(stream);
+            if (stream.readInt() != MAGIC || stream.readInt() != FORMAT_VERSION
+                    || !config.getHeaders().equals(in.readStrings())) {
+                return null;
+            }
+
+            BasicFileAttributes csv = Files.readAttributes(Path.of(config.getFilePath()), BasicFileAttributes.class);
+            if (in.readLong() != csv.size() || in.readLong() != csv.lastModifiedTime().to(TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+
+            int count = stream.readInt();
+            List<T> items = new ArrayList<>(Math.max(0, Math.min(count, 1 << 16)));
+            for (int i = 0; i < count; i++) {
+                T item = decoder.read(in);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            if (stream.readInt() != MAGIC) {
+                throw new IOException("missing end marker");
+            }
+            return items;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given items, stamped with the current size and modification time
+     * of the CSV file. Call this only after the CSV holds the same items.
+     *
+     * @param config  the CSV configuration the items belong to
+     * @param items   the items to write
+     * @param encoder writes one item
+     * @param <T>     the type of the items
+     * @throws IOException if the CSV file is missing or the snapshot cannot be written
+     */
+    public static <T> void save(ICsvConfig config, List<T> items, Encoder<T> encoder) throws IOException {
+        Path snapshotPath = pathFor(config);
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        BasicFileAttributes csv = Files.readAttributes(Path.of(config.getFilePath()), BasicFileAttributes.class);
+
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            SnapshotOutput out = new SnapshotOutput(stream);
+            stream.writeInt(MAGIC);
+            stream.writeInt(FORMAT_VERSION);
+            out.writeStrings(config.getHeaders());
+            out.writeLong(csv.size());
+            out.writeLong(csv.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+
+            stream.writeInt(items.size());
+            for (T item : items) {
+                encoder.write(item, out);
+            }
+            stream.writeInt(MAGIC);
+        }
+
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
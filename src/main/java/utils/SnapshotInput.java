@@ -0,0 +1,151 @@
+package utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typed binary reader for repository snapshots written by {@link SnapshotOutput}.
+ * <p>
+ * Repeated strings come back as the same {@link String} instance, so a loaded snapshot holds
+ * one copy of each NRIC and ID no matter how many rows refer to it.
+ * </p>
+ */
+public final class SnapshotInput {
+    private static final int MAX_STRING_BYTES = 1 << 24;
+    private static final Map<Class<?>, Object[]> ENUM_VALUES = new ConcurrentHashMap<>();
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    SnapshotInput(DataInputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads a string, which may be {@code null}.
+     *
+     * @return the string
+     * @throws IOException if the snapshot is truncated or malformed
+     */
+    public String readString() throws IOException {
+        int index = readVarInt() - 1;
+        if (index < 0) {
+            return null;
+        }
+        if (index < strings.size()) {
+            return strings.get(index);
+        }
+        if (index != strings.size()) {
+            throw new IOException("Bad string table index " + index);
+        }
+
+        int length = readVarInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    /**
+     * Reads a list of strings.
+     *
+     * @return a new mutable list
+     * @throws IOException if the snapshot is truncated or malformed
+     */
+    public List<String> readStrings() throws IOException {
+        int size = readVarInt();
+        List<String> values = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    /**
+     * Reads an enum constant written as its ordinal, which may be {@code null}.
+     *
+     * @param type the enum class
+     * @param <E>  the enum type
+     * @return the constant
+     * @throws IOException if the snapshot is truncated or the ordinal is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        int ordinal = readVarInt() - 1;
+        if (ordinal < 0) {
+            return null;
+        }
+        Object[] values = ENUM_VALUES.computeIfAbsent(type, Class::getEnumConstants);
+        if (ordinal >= values.length) {
+            throw new IOException("Bad ordinal " + ordinal + " for " + type.getSimpleName());
+        }
+        return (E) values[ordinal];
+    }
+
+    /**
+     * Reads a date-time, which may be {@code null}.
+     *
+     * @return the date-time
+     * @throws IOException if the snapshot is truncated or malformed
+     */
+    public LocalDateTime readDateTime() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return the value
+     * @throws IOException if the snapshot is truncated
+     */
+    public int readInt() throws IOException {
+        return in.readInt();
+    }
+
+    /**
+     * Reads a boolean.
+     *
+     * @return the value
+     * @throws IOException if the snapshot is truncated
+     */
+    public boolean readBoolean() throws IOException {
+        return in.readBoolean();
+    }
+
+    /**
+     * Reads a long.
+     *
+     * @return the value
+     * @throws IOException if the snapshot is truncated
+     */
+    public long readLong() throws IOException {
+        return in.readLong();
+    }
+
+    int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,134 @@
+package utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed binary writer for repository snapshots, read back by {@link SnapshotInput}.
+ * <p>
+ * Strings go through a string table: the first occurrence of a value is written in full and every
+ * later occurrence as its table index, so NRICs and IDs repeated across rows cost a few bytes each.
+ * Enums are written as ordinals and date-times as epoch seconds plus nanoseconds.
+ * </p>
+ */
+public final class SnapshotOutput {
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    SnapshotOutput(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a string, which may be {@code null}.
+     *
+     * @param value the string to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarInt(index + 1);
+            return;
+        }
+
+        int next = strings.size();
+        strings.put(value, next);
+        writeVarInt(next + 1); // One past the last known index announces a new table entry
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes a list of strings.
+     *
+     * @param values the strings to write, or {@code null} for an empty list
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeStrings(List<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Writes an enum constant as its ordinal, which may be {@code null}.
+     *
+     * @param value the constant to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeEnum(Enum<?> value) throws IOException {
+        writeVarInt(value != null ? value.ordinal() + 1 : 0);
+    }
+
+    /**
+     * Writes a date-time as epoch seconds and nanoseconds, which may be {@code null}.
+     *
+     * @param value the date-time to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeDateTime(LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(value.getNano());
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @param value the value to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeInt(int value) throws IOException {
+        out.writeInt(value);
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value the value to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        out.writeBoolean(value);
+    }
+
+    /**
+     * Writes a long.
+     *
+     * @param value the value to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeLong(long value) throws IOException {
+        out.writeLong(value);
+    }
+
+    void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
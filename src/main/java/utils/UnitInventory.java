@@ -0,0 +1,246 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks which units of a project are taken, as a floor &times; stack bitset.
+ * <p>
+ * Unit numbers have the form {@code FF-SSS}, a two-digit floor and a three-digit stack, both
+ * starting at 1. Each floor holds one bit per stack and is only allocated once a unit on it is
+ * taken, alongside a count of its taken units so full floors are skipped when searching.
+ * </p>
+ * <p>
+ * Checking a unit is O(1), and finding the next free unit or the free units on a floor is
+ * O(floors) plus a scan of one floor's words. All methods are thread-safe, and
+ * {@link #claim}/{@link #claimNextFree} are atomic, so concurrent bookings never get the same unit.
+ * </p>
+ */
+public final class UnitInventory {
+    /** The highest floor a unit number can address. */
+    public static final int MAX_FLOORS = 99;
+    /** The highest stack a unit number can address. */
+    public static final int MAX_STACKS = 999;
+
+    private final int floors;
+    private final int stacks;
+    private final long[][] taken;
+    private final int[] takenOnFloor;
+    private int takenCount;
+
+    /**
+     * Creates an inventory with every unit free.
+     *
+     * @param floors the number of floors, from 1 to {@link #MAX_FLOORS}
+     * @param stacks the number of stacks on each floor, from 1 to {@link #MAX_STACKS}
+     * @throws IllegalArgumentException if either size is out of range
+     */
+    public UnitInventory(int floors, int stacks) {
+        if (floors < 1 || floors > MAX_FLOORS || stacks < 1 || stacks > MAX_STACKS) {
+            throw new IllegalArgumentException("Invalid unit inventory size: " + floors + " x " + stacks);
+        }
+        this.floors = floors;
+        this.stacks = stacks;
+        this.taken = new long[floors + 1][];
+        this.takenOnFloor = new int[floors + 1];
+    }
+
+    /**
+     * Creates an inventory covering every unit number that can be written.
+     *
+     * @return a new, empty inventory of {@link #MAX_FLOORS} by {@link #MAX_STACKS} units
+     */
+    public static UnitInventory full() {
+        return new UnitInventory(MAX_FLOORS, MAX_STACKS);
+    }
+
+    /**
+     * Checks whether a string is a well-formed unit number, e.g. {@code 04-001}.
+     *
+     * @param unitNumber the unit number
+     * @return true if it has the form {@code FF-SSS} with a floor and stack of at least 1
+     */
+    public static boolean isValidUnit(String unitNumber) {
+        return floorOf(unitNumber) > 0;
+    }
+
+    /**
+     * Formats a floor and stack as a unit number.
+     *
+     * @param floor the floor
+     * @param stack the stack
+     * @return the unit number, e.g. {@code 04-001}
+     */
+    public static String format(int floor, int stack) {
+        return String.format("%02d-%03d", floor, stack);
+    }
+
+    /**
+     * Checks whether a unit is free.
+     *
+     * @param unitNumber the unit number
+     * @return true if the unit is in this inventory and not taken
+     */
+    public synchronized boolean isFree(String unitNumber) {
+        int floor = floorOf(unitNumber);
+        int stack = stackOf(unitNumber);
+        return inRange(floor, stack) && !isTaken(floor, stack);
+    }
+
+    /**
+     * Takes a unit if it is free.
+     *
+     * @param unitNumber the unit number
+     * @return true if the unit was free and is now taken; false if it was taken or is not in this inventory
+     */
+    public synchronized boolean claim(String unitNumber) {
+        int floor = floorOf(unitNumber);
+        int stack = stackOf(unitNumber);
+        if (!inRange(floor, stack) || isTaken(floor, stack)) {
+            return false;
+        }
+        setTaken(floor, stack, true);
+        return true;
+    }
+
+    /**
+     * Frees a unit.
+     *
+     * @param unitNumber the unit number
+     * @return true if the unit was taken
+     */
+    public synchronized boolean release(String unitNumber) {
+        int floor = floorOf(unitNumber);
+        int stack = stackOf(unitNumber);
+        if (!inRange(floor, stack) || !isTaken(floor, stack)) {
+            return false;
+        }
+        setTaken(floor, stack, false);
+        return true;
+    }
+
+    /**
+     * Finds the lowest free unit, by floor and then stack.
+     *
+     * @return the unit number, or {@code null} if every unit is taken
+     */
+    public synchronized String nextFree() {
+        for (int floor = 1; floor <= floors; floor++) {
+            if (takenOnFloor[floor] < stacks) {
+                return format(floor, firstFreeStack(floor));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes the lowest free unit.
+     *
+     * @return the unit number taken, or {@code null} if every unit is taken
+     */
+    public synchronized String claimNextFree() {
+        String unitNumber = nextFree();
+        if (unitNumber != null) {
+            claim(unitNumber);
+        }
+        return unitNumber;
+    }
+
+    /**
+     * Lists the free units on a floor.
+     *
+     * @param floor the floor, from 1
+     * @return the free unit numbers in stack order, empty if the floor is full or out of range
+     */
+    public synchronized List<String> freeOnFloor(int floor) {
+        List<String> free = new ArrayList<>();
+        if (floor < 1 || floor > floors) {
+            return free;
+        }
+        for (int stack = 1; stack <= stacks; stack++) {
+            if (!isTaken(floor, stack)) {
+                free.add(format(floor, stack));
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Gets the number of units taken.
+     *
+     * @return the taken unit count
+     */
+    public synchronized int takenCount() {
+        return takenCount;
+    }
+
+    private boolean inRange(int floor, int stack) {
+        return floor >= 1 && floor <= floors && stack >= 1 && stack <= stacks;
+    }
+
+    private boolean isTaken(int floor, int stack) {
+        long[] words = taken[floor];
+        return words != null && (words[stack >>> 6] & (1L << stack)) != 0;
+    }
+
+    private void setTaken(int floor, int stack, boolean value) {
+        long[] words = taken[floor];
+        if (words == null) {
+            words = new long[(stacks >>> 6) + 1];
+            taken[floor] = words;
+        }
+        if (value) {
+            words[stack >>> 6] |= 1L << stack;
+            takenOnFloor[floor]++;
+            takenCount++;
+        } else {
+            words[stack >>> 6] &= ~(1L << stack);
+            takenOnFloor[floor]--;
+            takenCount--;
+        }
+    }
+
+    private int firstFreeStack(int floor) {
+        long[] words = taken[floor];
+        if (words == null) {
+            return 1;
+        }
+        // Bit 0 of the first word is stack 0, which does not exist, so it is treated as taken.
+        for (int i = 0; i < words.length; i++) {
+            long free = ~words[i];
+            if (i == 0) {
+                free &= ~1L;
+            }
+            if (free != 0) {
+                int stack = (i << 6) + Long.numberOfTrailingZeros(free);
+                return stack <= stacks ? stack : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int floorOf(String unitNumber) {
+        if (unitNumber == null || unitNumber.length() != 6 || unitNumber.charAt(2) != '-') {
+            return -1;
+        }
+        int floor = digits(unitNumber, 0, 2);
+        int stack = digits(unitNumber, 3, 6);
+        return floor > 0 && stack > 0 ? floor : -1;
+    }
+
+    private static int stackOf(String unitNumber) {
+        return floorOf(unitNumber) > 0 ? digits(unitNumber, 3, 6) : -1;
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
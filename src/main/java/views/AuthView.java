@@ -191,7 +191,7 @@ public class AuthView {
      * @return true if user opts to use a test account
      */
     public static boolean showTestingMenu() {
-        System.out.println("\n=== Testing Menu ===");
+        CommonView.displayMessage("\n=== Testing Menu ===");
         return CommonView.promptYesNo12("Would you like to use a test account?");
     }
 
@@ -201,10 +201,10 @@ public class AuthView {
      * @return the chosen test user type (1-3)
      */
     public static int showTestUserOptions() {
-        System.out.println("\n=== Test Users ===");
-        System.out.println("1. Test Applicant");
-        System.out.println("2. Test Officer");
-        System.out.println("3. Test Manager");
+        CommonView.displayMessage("\n=== Test Users ===");
+        CommonView.displayMessage("1. Test Applicant");
+        CommonView.displayMessage("2. Test Officer");
+        CommonView.displayMessage("3. Test Manager");
         while (true) {
             int choice = CommonView.promptInt("Enter your choice (1-3): ", 1, 3);
             if (choice >= 1 && choice <= 3) {
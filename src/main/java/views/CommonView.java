@@ -2,15 +2,18 @@ package views;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Scanner;
+import java.io.PrintStream;
 
+import models.Session;
 import utils.DateTimeUtils;
 
 /**
  * View class for displaying messages and prompting user input in the console.
+ * <p>
+ * Input and output go to the terminal of the {@link Session} bound to the calling thread.
+ * </p>
  */
 public class CommonView {
-    private static final Scanner scanner = new Scanner(System.in);
     private static final String SEPARATOR = "=====================================================================";
     private static final String SEPARATOR_SHORT = "---------------------------------------------------------------------";
 
@@ -24,24 +27,24 @@ public class CommonView {
 
     /** Displays a formatted header with the given title. */
     public static void displayHeader(String title) {
-        System.out.println("\n" + ANSI_BLUE + SEPARATOR + ANSI_RESET);
-        System.out.println(ANSI_BLUE + "       " + title + ANSI_RESET);
-        System.out.println(ANSI_BLUE + SEPARATOR + ANSI_RESET + "\n");
+        out().println("\n" + ANSI_BLUE + SEPARATOR + ANSI_RESET);
+        out().println(ANSI_BLUE + "       " + title + ANSI_RESET);
+        out().println(ANSI_BLUE + SEPARATOR + ANSI_RESET + "\n");
     }
 
     /** Displays a plain message. */
     public static void displayMessage(String message) {
-        System.out.println(message);
+        out().println(message);
     }
 
     /** Displays an error message. */
     public static void displayError(String errorMessage) {
-        System.out.println(ANSI_RED + "ERROR: " + errorMessage + ANSI_RESET);
+        out().println(ANSI_RED + "ERROR: " + errorMessage + ANSI_RESET);
     }
 
     /** Displays a success message. */
     public static void displaySuccess(String successMessage) {
-        System.out.println(ANSI_GREEN + "SUCCESS: " + successMessage + ANSI_RESET);
+        out().println(ANSI_GREEN + "SUCCESS: " + successMessage + ANSI_RESET);
     }
 
     /**
@@ -51,8 +54,9 @@ public class CommonView {
      * @return the trimmed input string
      */
     public static String prompt(String message) {
-        System.out.print(ANSI_YELLOW + message + ANSI_RESET); // Prompt in yellow
-        return scanner.nextLine().trim();
+        out().print(ANSI_YELLOW + message + ANSI_RESET); // Prompt in yellow
+        out().flush();
+        return Session.current().getScanner().nextLine().trim();
     }
 
     /**
@@ -105,7 +109,7 @@ public class CommonView {
         }
 
         for (int i = 0; i < options.size(); i++) {
-            System.out.println(ANSI_CYAN + (i + 1) + ". " + options.get(i) + ANSI_RESET);
+            out().println(ANSI_CYAN + (i + 1) + ". " + options.get(i) + ANSI_RESET);
         }
 
         return promptInt("\nEnter your choice: ", 1, options.size());
@@ -127,28 +131,29 @@ public class CommonView {
         }
 
         for (int i = 0; i < options.size(); i++) {
-            System.out.println(ANSI_CYAN + (i + 1) + ". " + options.get(i) + ANSI_RESET);
+            out().println(ANSI_CYAN + (i + 1) + ". " + options.get(i) + ANSI_RESET);
         }
 
-        System.out.println(ANSI_CYAN + "0. Back to previous menu" + ANSI_RESET);
+        out().println(ANSI_CYAN + "0. Back to previous menu" + ANSI_RESET);
 
         return promptInt("\nEnter your choice: ", 0, options.size());
     }
 
     /** Displays a long separator line. */
     public static void displaySeparator() {
-        System.out.println(ANSI_BLUE + SEPARATOR + ANSI_RESET); // Separator in blue like header
+        out().println(ANSI_BLUE + SEPARATOR + ANSI_RESET); // Separator in blue like header
     }
 
     /** Displays a short separator line. */
     public static void displayShortSeparator() {
-        System.out.println(ANSI_BLUE + SEPARATOR_SHORT + ANSI_RESET); // Separator in blue like header
+        out().println(ANSI_BLUE + SEPARATOR_SHORT + ANSI_RESET); // Separator in blue like header
     }
 
     /** Pauses execution until the user presses Enter. */
     public static void pause() {
-        System.out.print(ANSI_YELLOW + "\nPress Enter to continue..." + ANSI_RESET); // Pause prompt in yellow
-        scanner.nextLine();
+        out().print(ANSI_YELLOW + "\nPress Enter to continue..." + ANSI_RESET); // Pause prompt in yellow
+        out().flush();
+        Session.current().getScanner().nextLine();
     }
 
     /**
@@ -214,4 +219,9 @@ public class CommonView {
             displayError("Incorrect confirmation word. Please type '" + confirmationWord + "' exactly, or '0'/'cancel' to cancel.");
         }
     }
+
+    /** Gets the output stream of the current session's terminal. */
+    private static PrintStream out() {
+        return Session.current().getOut();
+    }
 }
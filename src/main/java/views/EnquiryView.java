@@ -73,8 +73,8 @@ public class EnquiryView {
             CommonView.displayMessage("   Last Updated: " + DateTimeUtils.formatDateTime(enquiry.getLastUpdated()));
             CommonView.displayMessage("   Project: " + project.getProjectName());
 
-            System.out.println("-----------------------------------");
-            System.out.println();
+            CommonView.displayMessage("-----------------------------------");
+            CommonView.displayMessage("");
         }
     }
 
@@ -39,7 +39,7 @@ public class OfficerView {
         CommonView.displayHeader("Projects Handled by You");
 
         if (projects.isEmpty()) {
-            System.out.println("No projects handled by you.");
+            CommonView.displayMessage("No projects handled by you.");
             return;
         }
 
@@ -113,8 +113,9 @@ public class OfficerView {
             CommonView.displayMessage(action + " By: " + (approver != null ? approver.getName() : application.getApprovedBy()));
         }
 
-        application.getApplicationStatusHistory().forEach((status, timestamp) -> 
-            CommonView.displayMessage(String.format("  - %s: %s", status.getDescription(), DateTimeUtils.formatDateTime(timestamp)))
+        application.forEachStatusChange((status, epochMilli) ->
+            CommonView.displayMessage(String.format("  - %s: %s", status.getDescription(),
+                    DateTimeUtils.formatDateTime(DateTimeUtils.fromEpochMilli(epochMilli))))
         );
         CommonView.displaySeparator();
     }
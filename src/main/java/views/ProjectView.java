@@ -78,16 +78,14 @@ public class ProjectView {
             CommonView.displayMessage(String.format("   Application Period: %s to %s",
                 project.getApplicationOpenDate(), project.getApplicationCloseDate()));
 
-            List<FlatType> flatTypes = project.getFlatTypes();
-            List<Integer> units = project.getFlatTypeUnits();
             StringBuilder flatTypesBuilder = new StringBuilder();
-            for (int j = 0; j < flatTypes.size(); j++) {
-                flatTypesBuilder.append(flatTypes.get(j).getDescription())
-                                .append(" (").append(units.get(j)).append(" units)");
-                if (j < flatTypes.size() - 1) {
+            project.forEachFlatType((flatType, units, price) -> {
+                if (flatTypesBuilder.length() > 0) {
                     flatTypesBuilder.append(", ");
                 }
-            }
+                flatTypesBuilder.append(flatType.getDescription())
+                                .append(" (").append(units).append(" units)");
+            });
             String flatTypesString = flatTypesBuilder.length() > 0 ? flatTypesBuilder.toString() : "N/A";
             CommonView.displayMessage(String.format("   Available Flat Types: %s", flatTypesString));
         }
@@ -137,7 +135,7 @@ public class ProjectView {
                             break;
                         }
                         int projectChoice = getProjectChoice(currentProjects);
-                        System.out.println();
+                        CommonView.displayMessage("");
                         CommonView.displaySeparator();
                         if (projectChoice != -1) {
                             Project selectedProject = currentProjects.get(projectChoice - 1);
@@ -198,12 +196,7 @@ public class ProjectView {
         CommonView.displayMessage("Location: " + project.getLocation());
         CommonView.displayMessage("Application Period: " + project.getApplicationOpenDate() + " to " + project.getApplicationCloseDate());
         CommonView.displayMessage("Available Flat Types:");
-        List<FlatType> flatTypes = project.getFlatTypes();
-        for (int i = 0; i < flatTypes.size(); i++) {
-            CommonView.displayMessage((i + 1) + ". " + flatTypes.get(i).getDescription());
-            CommonView.displayMessage("   Available Units: " + project.getFlatTypeUnits().get(i));
-            CommonView.displayMessage("   Price: " + project.getFlatTypeSellingPrice().get(i));
-        }
+        displayFlatTypeDetails(project);
     }
 
     /**
@@ -218,12 +211,7 @@ public class ProjectView {
         CommonView.displayMessage("Manager: " + (manager != null ? String.format("%s (%s)", manager.getName(), manager.getUserNRIC()) : "N/A"));
         CommonView.displayMessage("Application Period: " + project.getApplicationOpenDate() + " to " + project.getApplicationCloseDate());
         CommonView.displayMessage("Available Flat Types:");
-        List<FlatType> flatTypes = project.getFlatTypes();
-        for (int i = 0; i < flatTypes.size(); i++) {
-            CommonView.displayMessage((i + 1) + ". " + flatTypes.get(i).getDescription());
-            CommonView.displayMessage("   Available Units: " + project.getFlatTypeUnits().get(i));
-            CommonView.displayMessage("   Price: " + project.getFlatTypeSellingPrice().get(i));
-        }
+        displayFlatTypeDetails(project);
     }
 
     public static void displayProjectDetailsManagerView(Project project) {
@@ -235,11 +223,16 @@ public class ProjectView {
         CommonView.displayMessage("Manager: " + (manager != null ? String.format("%s (%s)", manager.getName(), manager.getUserNRIC()) : "N/A"));
         CommonView.displayMessage("Application Period: " + project.getApplicationOpenDate() + " to " + project.getApplicationCloseDate());
         CommonView.displayMessage("Available Flat Types:");
+        displayFlatTypeDetails(project);
+    }
+
+    private static void displayFlatTypeDetails(Project project) {
         List<FlatType> flatTypes = project.getFlatTypes();
         for (int i = 0; i < flatTypes.size(); i++) {
-            CommonView.displayMessage((i + 1) + ". " + flatTypes.get(i).getDescription());
-            CommonView.displayMessage("   Available Units: " + project.getFlatTypeUnits().get(i));
-            CommonView.displayMessage("   Price: " + project.getFlatTypeSellingPrice().get(i));
+            FlatType flatType = flatTypes.get(i);
+            CommonView.displayMessage((i + 1) + ". " + flatType.getDescription());
+            CommonView.displayMessage("   Available Units: " + project.getAvailableUnits(flatType));
+            CommonView.displayMessage("   Price: " + project.getFlatPrice(flatType));
         }
     }
 
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sustained requests per second against a running {@code ApiServer}.
+ * <p>
+ * The server is not started here, since it reads and writes the CSV files under {@code data/}
+ * in its working directory. Start it against a copy of the data, e.g.
+ * {@code cd /tmp/bto && java -cp <project>/target/classes App --api}, then run
+ * {@code mvn -Pbench test -Dbench=ApiLoadBenchmark}. Point it at another server with the
+ * {@code API_URL} environment variable, e.g. {@code API_URL=http://localhost:9090}.
+ * </p>
+ * <p>
+ * An applicant can only hold one active application, so after the first accepted submission
+ * every submit is rejected with 409 after the full authentication and validation path. Both
+ * outcomes count as served requests; any other status fails the run.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class ApiLoadBenchmark {
+    @Param({"S1234567A:password"})
+    String credentials;
+
+    @Param({"Tampines GreenTown"})
+    String projectName;
+
+    @Param({"TWO_ROOM"})
+    String flatType;
+
+    HttpClient client;
+    HttpRequest listRequest;
+    HttpRequest submitRequest;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        String baseUrl = System.getenv().getOrDefault("API_URL", "http://localhost:8080");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+        listRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/projects"))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        String form = "projectName=" + URLEncoder.encode(projectName, StandardCharsets.UTF_8)
+                + "&flatType=" + URLEncoder.encode(flatType, StandardCharsets.UTF_8);
+        submitRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/applications"))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+
+        HttpResponse<String> probe = client.send(listRequest, HttpResponse.BodyHandlers.ofString());
+        if (probe.statusCode() != 200) {
+            throw new IllegalStateException("API at " + baseUrl + " answered " + probe.statusCode() + ": " + probe.body());
+        }
+    }
+
+    @Benchmark
+    public int listProjects() throws IOException, InterruptedException {
+        return expect(client.send(listRequest, HttpResponse.BodyHandlers.ofByteArray()), 200);
+    }
+
+    @Benchmark
+    public int submitApplication() throws IOException, InterruptedException {
+        // 201 for the first accepted submission, then 409; 403 if the project is not open to this applicant
+        return expect(client.send(submitRequest, HttpResponse.BodyHandlers.ofByteArray()), 201, 409, 403);
+    }
+
+    private static int expect(HttpResponse<byte[]> response, int... allowed) {
+        int status = response.statusCode();
+        for (int ok : allowed) {
+            if (status == ok) {
+                return response.body().length;
+            }
+        }
+        throw new IllegalStateException("Unexpected status " + status + ": " + new String(response.body(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.CsvTokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the single-pass {@link CsvTokenizer} against the regex split previously used by CsvReader.
+ * <p>
+ * The input mimics enquiry.csv with a long free-text Query column full of commas and quotes.
+ * Run with {@code mvn -Pbench test -Dbench=CsvParseBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParseBenchmark {
+    private static final Pattern CSV_PATTERN = Pattern.compile(
+            ",(?=(?:[^\"]*\"[^\"]*\")*(?![^\"]*\"))"
+    );
+
+    @Param({"32", "512", "4096"})
+    int queryLength;
+
+    @Param({"1000"})
+    int rows;
+
+    String csv;
+
+    @Setup
+    public void setUp() {
+        StringBuilder query = new StringBuilder("\"");
+        while (query.length() < queryLength) {
+            query.append("Is the \"\"east\"\" wing, near the MRT, ready? ");
+        }
+        query.append('"');
+
+        StringBuilder sb = new StringBuilder("EnquiryID,ProjectID,ApplicantNRIC,Query,Response,EnquiryStatus,EnquiryDate,LastUpdated,RespondedBy\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append('E').append(i).append(",P1,S1234567A,").append(query)
+                    .append(",,PENDING,2025-04-08T10:30:00,2025-04-08T10:30:00,\n");
+        }
+        csv = sb.toString();
+    }
+
+    @Benchmark
+    public void regexSplit(Blackhole bh) throws IOException {
+        try (BufferedReader br = new BufferedReader(new StringReader(csv))) {
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] values = CSV_PATTERN.split(line);
+                for (String value : values) {
+                    bh.consume(unescapeValue(value));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole bh) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+            tokenizer.next();
+            String[] values;
+            while ((values = tokenizer.next()) != null) {
+                bh.consume(values);
+            }
+        }
+    }
+
+    private static String unescapeValue(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        value = value.trim();
+        if (value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value.replace("\"\"", "\"");
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import utils.DateTimeUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} with the hand-written path in
+ * {@link DateTimeUtils} for the timestamps the CSV files hold.
+ * Run with {@code mvn -Pbench test -Dbench=DateTimeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class DateTimeBenchmark {
+    private static final int SIZE = 1024;
+
+    LocalDateTime[] dateTimes = new LocalDateTime[SIZE];
+    String[] texts = new String[SIZE];
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        for (int i = 0; i < SIZE; i++) {
+            // Mostly whole seconds like the seed data, some with the 7-digit fractions LocalDateTime.now() gives
+            int nanos = random.nextInt(4) == 0 ? random.nextInt(10_000_000) * 100 : 0;
+            dateTimes[i] = LocalDateTime.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), nanos);
+            texts[i] = dateTimes[i].format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime parseFormatter() {
+        return LocalDateTime.parse(texts[next++ & (SIZE - 1)], DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    @Benchmark
+    public LocalDateTime parseByHand() {
+        return DateTimeUtils.parseDateTime(texts[next++ & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    public String formatFormatter() {
+        return dateTimes[next++ & (SIZE - 1)].format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    @Benchmark
+    public String formatByHand() {
+        return DateTimeUtils.formatDateTime(dateTimes[next++ & (SIZE - 1)]);
+    }
+}
@@ -0,0 +1,128 @@
+package benchmarks;
+
+import models.Application;
+import models.Project;
+import models.enums.ApplicationStatus;
+import models.enums.FlatType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares ways of dropping the projects an applicant already applied to from their eligible list.
+ * <p>
+ * {@code scanAllApplications} is the original check, which streamed every application once per
+ * project. {@code lookupPerProject} re-reads the applicant's applications from an index once per
+ * project. {@code appliedProjectSet} builds the set of applied projects once and looks each
+ * project up in it, as {@code ApplicantApplicationService.getEligibleProjects} now does.
+ * Run with {@code mvn -Pbench test -Dbench=EligibleProjectsBenchmark}.
+ * </p>
+ * <p>
+ * At 10k projects and 1M applications one call to the original check takes several minutes, so it
+ * is timed once without warmup. Skip it with {@code -Dbench="EligibleProjectsBenchmark.(lookup|applied)"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EligibleProjectsBenchmark {
+    private static final String APPLICANT = "S0000000A";
+
+    @Param({"10000"})
+    int projects;
+
+    @Param({"1000000"})
+    int applications;
+
+    List<Project> allProjects;
+    List<Application> allApplications;
+    Map<String, List<Application>> byApplicant;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+
+        allProjects = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            allProjects.add(new Project("P" + i, "T0000000M", "Project " + i, "Town " + (i % 50),
+                    List.of(FlatType.TWO_ROOM, FlatType.THREE_ROOM), List.of(100, 100), List.of(400000, 600000),
+                    now.minusDays(1 + random.nextInt(30)), now.plusDays(1 + random.nextInt(30)),
+                    10, true, new ArrayList<>(), new ArrayList<>()));
+        }
+
+        // 50k applicants sharing the applications, plus a handful for the applicant being listed
+        allApplications = new ArrayList<>(applications);
+        byApplicant = new HashMap<>();
+        for (int i = 0; i < applications; i++) {
+            String nric = i % 100_000 == 0 ? APPLICANT : String.format("S%07dB", random.nextInt(50_000));
+            Application application = new Application(nric, "P" + random.nextInt(projects), FlatType.TWO_ROOM);
+            if (random.nextInt(4) == 0) {
+                application.reject("T0000000M");
+            }
+            allApplications.add(application);
+            byApplicant.computeIfAbsent(nric, k -> new ArrayList<>()).add(application);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public List<Project> scanAllApplications() {
+        LocalDateTime now = LocalDateTime.now();
+        return allProjects.stream()
+                .filter(Project::isVisible)
+                .filter(p -> now.isAfter(p.getApplicationOpenDate()) && now.isBefore(p.getApplicationCloseDate()))
+                .filter(p -> allApplications.stream()
+                        .filter(app -> app.getApplicantNRIC().equals(APPLICANT))
+                        .filter(app -> app.getProjectId().equals(p.getProjectID()))
+                        .noneMatch(EligibleProjectsBenchmark::counts))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Project> lookupPerProject() {
+        LocalDateTime now = LocalDateTime.now();
+        return allProjects.stream()
+                .filter(Project::isVisible)
+                .filter(p -> now.isAfter(p.getApplicationOpenDate()) && now.isBefore(p.getApplicationCloseDate()))
+                .filter(p -> byApplicant.getOrDefault(APPLICANT, List.of()).stream()
+                        .filter(app -> app.getProjectId().equals(p.getProjectID()))
+                        .noneMatch(EligibleProjectsBenchmark::counts))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Project> appliedProjectSet() {
+        Set<String> applied = new HashSet<>();
+        for (Application app : byApplicant.getOrDefault(APPLICANT, List.of())) {
+            if (counts(app)) {
+                applied.add(app.getProjectId());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return allProjects.stream()
+                .filter(Project::isVisible)
+                .filter(p -> now.isAfter(p.getApplicationOpenDate()) && now.isBefore(p.getApplicationCloseDate()))
+                .filter(p -> !applied.contains(p.getProjectID()))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean counts(Application app) {
+        return app.getApplicationStatus() != ApplicationStatus.UNSUCCESSFUL
+                && app.getApplicationStatus() != ApplicationStatus.WITHDRAWN;
+    }
+}
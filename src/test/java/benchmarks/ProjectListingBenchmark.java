@@ -0,0 +1,77 @@
+package benchmarks;
+
+import models.Project;
+import models.enums.FlatType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building each project's "Available Flat Types" line from the copied flat type and unit
+ * lists against visiting the flat types in place with {@code Project.forEachFlatType}.
+ * <p>
+ * Run with {@code mvn -Pbench test -Dbench=ProjectListingBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectListingBenchmark {
+    @Param({"10000"})
+    int projects;
+
+    List<Project> allProjects;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        allProjects = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            allProjects.add(new Project("P" + i, "T0000000M", "Project " + i, "Town " + (i % 50),
+                    List.of(FlatType.THREE_ROOM, FlatType.TWO_ROOM), List.of(100 + i % 7, 80), List.of(600000, 400000),
+                    now.minusDays(1), now.plusDays(1), 10, true, new ArrayList<>(), new ArrayList<>()));
+        }
+    }
+
+    @Benchmark
+    public long copiedLists() {
+        long length = 0;
+        StringBuilder line = new StringBuilder();
+        for (Project project : allProjects) {
+            line.setLength(0);
+            List<FlatType> flatTypes = project.getFlatTypes();
+            List<Integer> units = project.getFlatTypeUnits();
+            for (int j = 0; j < flatTypes.size(); j++) {
+                if (j > 0) {
+                    line.append(", ");
+                }
+                line.append(flatTypes.get(j).getDescription()).append(" (").append(units.get(j)).append(" units)");
+            }
+            length += line.length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long visitInPlace() {
+        long length = 0;
+        StringBuilder line = new StringBuilder();
+        for (Project project : allProjects) {
+            line.setLength(0);
+            project.forEachFlatType((flatType, units, price) -> {
+                if (line.length() > 0) {
+                    line.append(", ");
+                }
+                line.append(flatType.getDescription()).append(" (").append(units).append(" units)");
+            });
+            length += line.length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import models.User;
+import org.openjdk.jmh.annotations.*;
+import utils.LongHashMap;
+import utils.NricCodec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking users up by NRIC in a {@code HashMap<String, User>}, as {@code CsvRepository}
+ * does, against packing the NRIC with {@link NricCodec} and probing a {@link LongHashMap}, as
+ * {@code UserRepository.getByNRIC} now does.
+ * <p>
+ * Each lookup uses a freshly built NRIC string, like one read from a login prompt or a request, so
+ * its hash is not cached. Run with {@code mvn -Pbench test -Dbench=UserLookupBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserLookupBenchmark {
+    private static final int QUERIES = 4096;
+
+    @Param({"1000000"})
+    int users;
+
+    Map<String, User> byString;
+    LongHashMap<User> byPacked;
+    char[][] queries;
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        byString = new HashMap<>();
+        byPacked = new LongHashMap<>();
+        String[] nrics = new String[users];
+        for (int i = 0; i < users; i++) {
+            String nric = String.format("%c%07d%c", random.nextBoolean() ? 'S' : 'T', random.nextInt(10_000_000),
+                    (char) ('A' + random.nextInt(26)));
+            User user = new User(nric, "User " + i, "hash", 30);
+            byString.put(nric, user);
+            byPacked.put(NricCodec.pack(nric), user);
+            nrics[i] = nric;
+        }
+        queries = new char[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = nrics[random.nextInt(users)].toCharArray();
+        }
+    }
+
+    @Benchmark
+    public User stringKeyed() {
+        return byString.get(new String(queries[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public User packedKeyed() {
+        return byPacked.get(NricCodec.pack(new String(queries[next++ & (QUERIES - 1)])));
+    }
+}
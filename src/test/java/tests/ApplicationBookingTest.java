@@ -0,0 +1,189 @@
+package tests;
+
+import models.Application;
+import models.Manager;
+import models.Project;
+import models.enums.ApplicationStatus;
+import models.enums.FlatType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import repositories.ApplicationRepository;
+import repositories.ProjectRepository;
+import repositories.ReceiptRepository;
+import services.ApplicationService;
+import utils.DateTimeUtils;
+import utils.UnitInventory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationBookingTest {
+    private static final int THREADS = 16;
+    private static final AtomicInteger projectIds = new AtomicInteger();
+
+    private final ApplicationService service = ApplicationService.getInstance();
+    private final Manager manager = new Manager("S1111111A", "Manager", "x", 40, null);
+
+    @Test
+    @DisplayName("Officers booking the same application at once take one flat and one unit between them")
+    void sameApplicationBookedOnce() throws Exception {
+        Project project = project(20);
+        Application application = successfulApplication(project);
+
+        List<Boolean> results = race(THREADS, project,
+                i -> service.bookApplication(application, null, UnitInventory.format(1, i + 1)));
+
+        assertEquals(1, results.stream().filter(booked -> booked).count());
+        assertEquals(ApplicationStatus.BOOKED, application.getApplicationStatus());
+        assertEquals(19, project.getAvailableUnits(FlatType.TWO_ROOM));
+        int claimed = 0;
+        for (int i = 0; i < THREADS; i++) {
+            if (ReceiptRepository.isUnitBooked(project.getProjectID(), UnitInventory.format(1, i + 1))) {
+                claimed++;
+            }
+        }
+        assertEquals(1, claimed);
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of more applications than flats book each at most once and never oversell")
+    void differentApplicationsNeverOversell() throws Exception {
+        Project project = project(20);
+        List<Application> applications = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            applications.add(successfulApplication(project));
+        }
+
+        // Two officers per application, each picking their own unit
+        List<Boolean> results = race(applications.size() * 2, project,
+                i -> service.bookApplication(applications.get(i / 2), null, UnitInventory.format(2 + i / 40, 1 + i % 40)));
+
+        int[] bookingsPerApplication = new int[applications.size()];
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i)) {
+                bookingsPerApplication[i / 2]++;
+            }
+        }
+        int booked = 0;
+        for (int count : bookingsPerApplication) {
+            assertTrue(count <= 1);
+            booked += count;
+        }
+        assertEquals(20, booked);
+        assertEquals(0, project.getAvailableUnits(FlatType.TWO_ROOM));
+        assertEquals(20, applications.stream().filter(app -> app.getApplicationStatus() == ApplicationStatus.BOOKED).count());
+    }
+
+    @Test
+    @DisplayName("Managers approving the same withdrawal at once return the booked flat once")
+    void withdrawalReleasesFlatOnce() throws Exception {
+        Project project = project(5);
+        Application application = successfulApplication(project);
+        assertTrue(race(1, project, i -> service.bookApplication(application, null, "01-001")).get(0));
+        application.requestWithdrawal();
+        assertEquals(4, project.getAvailableUnits(FlatType.TWO_ROOM));
+
+        List<Boolean> results = race(THREADS, project, i -> service.approveWithdrawal(application, manager));
+
+        assertEquals(1, results.stream().filter(approved -> approved).count());
+        assertEquals(ApplicationStatus.WITHDRAWN, application.getApplicationStatus());
+        assertEquals(5, project.getAvailableUnits(FlatType.TWO_ROOM));
+    }
+
+    private interface Call {
+        boolean run(int index);
+    }
+
+    /**
+     * Runs the calls together on their own threads. The repositories are mocked on each thread,
+     * since static mocks are per thread, so nothing is read from or written to the data files.
+     * A slow clock widens the gap between a status check and the status change that reads the time.
+     */
+    private static List<Boolean> race(int calls, Project project, Call call) throws Exception {
+        DateTimeUtils.setClock(new SlowClock(Clock.systemUTC()));
+        ExecutorService pool = Executors.newFixedThreadPool(calls);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            int index = i;
+            Callable<Boolean> task = () -> {
+                try (MockedStatic<ProjectRepository> projects = Mockito.mockStatic(ProjectRepository.class);
+                     MockedStatic<ApplicationRepository> applications = Mockito.mockStatic(ApplicationRepository.class)) {
+                    projects.when(() -> ProjectRepository.getById(project.getProjectID())).thenReturn(project);
+                    start.await();
+                    return call.run(index);
+                }
+            };
+            futures.add(pool.submit(task));
+        }
+        start.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        try {
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdown();
+            DateTimeUtils.setClock(null);
+        }
+        return results;
+    }
+
+    private static final class SlowClock extends Clock {
+        private final Clock clock;
+
+        SlowClock(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return clock.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new SlowClock(clock.withZone(zone));
+        }
+
+        @Override
+        public Instant instant() {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return clock.instant();
+        }
+    }
+
+    private static Project project(int units) {
+        // A fresh ID per project, so unit claims in ReceiptRepository start empty
+        return new Project("PBOOK" + projectIds.incrementAndGet(), "S1111111A", "Race Court", "Yishun",
+                List.of(FlatType.TWO_ROOM), List.of(units), List.of(350000),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 10, true,
+                new ArrayList<>(), new ArrayList<>());
+    }
+
+    private static Application successfulApplication(Project project) {
+        Application application = new Application("S2222222B", project.getProjectID(), FlatType.TWO_ROOM);
+        application.approve("S1111111A");
+        return application;
+    }
+}
@@ -0,0 +1,46 @@
+package tests;
+
+import models.Application;
+import models.enums.ApplicationStatus;
+import models.enums.FlatType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationHistoryTest {
+    @Test
+    @DisplayName("Status history is visited in time order and reads back the timestamps it was given")
+    void historyInTimeOrder() {
+        LocalDateTime submitted = LocalDateTime.of(2025, 4, 9, 8, 30);
+        LocalDateTime booked = LocalDateTime.of(2025, 4, 21, 5, 0, 45, 387_000_000);
+        // BOOKED sorts before SUCCESSFUL by time here, though not by status order
+        Application application = new Application("A1", "S1234567A", "P1", FlatType.TWO_ROOM,
+                ApplicationStatus.BOOKED, false, submitted, "T1234567J",
+                Map.of(ApplicationStatus.PENDING, submitted,
+                        ApplicationStatus.SUCCESSFUL, booked.plusDays(1),
+                        ApplicationStatus.BOOKED, booked));
+
+        List<ApplicationStatus> order = new ArrayList<>();
+        application.forEachStatusChange((status, epochMilli) -> order.add(status));
+        assertEquals(List.of(ApplicationStatus.PENDING, ApplicationStatus.BOOKED, ApplicationStatus.SUCCESSFUL), order);
+
+        assertEquals(booked, application.getApplicationStatusTimestamp(ApplicationStatus.BOOKED));
+        assertTrue(application.hasReachedStatus(ApplicationStatus.BOOKED));
+        assertFalse(application.hasReachedStatus(ApplicationStatus.WITHDRAWN));
+        assertNull(application.getApplicationStatusTimestamp(ApplicationStatus.WITHDRAWN));
+        assertEquals(Application.NO_TIMESTAMP, application.getApplicationStatusEpochMilli(ApplicationStatus.WITHDRAWN));
+        assertEquals(3, application.getApplicationStatusHistory().size());
+
+        application.requestWithdrawal();
+        assertTrue(application.hasReachedStatus(ApplicationStatus.WITHDRAWAL_REQUESTED));
+        order.clear();
+        application.forEachStatusChange((status, epochMilli) -> order.add(status));
+        assertEquals(ApplicationStatus.WITHDRAWAL_REQUESTED, order.get(order.size() - 1));
+    }
+}
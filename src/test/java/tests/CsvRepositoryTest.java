@@ -0,0 +1,213 @@
+package tests;
+
+import interfaces.ICsvCodec;
+import interfaces.ICsvConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repositories.CsvRepository;
+import repositories.WriteBehind;
+import utils.CsvRecord;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRepositoryTest {
+    @TempDir
+    Path tempDir;
+
+    private static class Item {
+        final String id;
+        String project;
+
+        Item(String id, String project) {
+            this.id = id;
+            this.project = project;
+        }
+    }
+
+    private static class ItemCodec implements ICsvCodec<Item> {
+        @Override
+        public Item decode(CsvRecord record) {
+            return new Item(record.get("ID"), record.get("Project"));
+        }
+
+        @Override
+        public void encode(Item item, CsvRecord record) {
+            record.put("ID", item.id);
+            record.put("Project", item.project);
+        }
+
+        @Override
+        public void writeSnapshot(Item item, SnapshotOutput out) throws IOException {
+            out.writeString(item.id);
+            out.writeString(item.project);
+        }
+
+        @Override
+        public Item readSnapshot(SnapshotInput in) throws IOException {
+            return new Item(in.readString(), in.readString());
+        }
+    }
+
+    @Test
+    @DisplayName("Primary and secondary indexes follow add, update and remove, and changes reach the file")
+    void indexesFollowChanges() throws IOException {
+        Path file = tempDir.resolve("items.csv");
+        Files.writeString(file, "ID,Project\nI1,P1\nI2,P1\nI3,P2\n");
+        CsvRepository<Item> repository = new CsvRepository<>("items", config(file), new ItemCodec(), item -> item.id)
+                .withIndex("project", item -> item.project);
+        repository.load();
+
+        assertEquals(3, repository.size());
+        assertEquals("P2", repository.get("I3").project);
+        assertEquals(2, repository.getBy("project", "P1").size());
+
+        assertFalse(repository.add(new Item("I1", "P9")));
+        assertTrue(repository.add(new Item("I4", "P2")));
+        assertEquals(2, repository.getBy("project", "P2").size());
+
+        Item moved = repository.get("I1");
+        moved.project = "P2";
+        repository.update(moved);
+        assertEquals(List.of("I2"), repository.getBy("project", "P1").stream().map(item -> item.id).toList());
+        assertEquals(3, repository.getBy("project", "P2").size());
+
+        assertTrue(repository.removeByKey("I3"));
+        assertNull(repository.get("I3"));
+        assertEquals(2, repository.getBy("project", "P2").size());
+
+        repository.get("I2").project = "P3";
+        repository.reindexAll();
+        assertTrue(repository.getBy("project", "P1").isEmpty());
+        assertEquals(List.of("I2"), repository.getBy("project", "P3").stream().map(item -> item.id).toList());
+        assertEquals(List.of("I1", "I2", "I4"), repository.getByAny("project", List.of("P3", "P2")).stream().map(item -> item.id).toList());
+        repository.saveAll();
+
+        assertEquals("ID,Project\nI1,P2\nI2,P3\nI4,P2\n", Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Concurrent writers and readers leave the indexes consistent")
+    void concurrentWritersAndReaders() throws Exception {
+        Path file = tempDir.resolve("items.csv");
+        Files.writeString(file, "ID,Project\n");
+        CsvRepository<Item> repository = new CsvRepository<>("items", config(file), new ItemCodec(), item -> item.id)
+                .withIndex("project", item -> item.project)
+                .appendOnAdd();
+        repository.load();
+
+        int writers = 4;
+        int perWriter = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    repository.add(new Item("W" + writer + "-" + i, "P" + (i % 3)));
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    List<Item> all = repository.getAll();
+                    assertTrue(all.size() <= writers * perWriter);
+                    repository.get("W0-0");
+                    repository.getBy("project", "P1");
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(writers * perWriter, repository.size());
+        int indexed = 0;
+        for (int p = 0; p < 3; p++) {
+            indexed += repository.getBy("project", "P" + p).size();
+        }
+        assertEquals(writers * perWriter, indexed);
+        assertThrows(UnsupportedOperationException.class, () -> repository.getAll().clear());
+    }
+
+    @Test
+    @DisplayName("Rows added during concurrent rewrites and flushes are written exactly once")
+    void appendsRaceRewrites() throws Exception {
+        for (boolean writeBehind : new boolean[] { false, true }) {
+            Path file = tempDir.resolve("appends-" + writeBehind + ".csv");
+            Files.writeString(file, "ID,Project\n");
+            CsvRepository<Item> repository = new CsvRepository<>("items", config(file), new ItemCodec(), item -> item.id)
+                    .appendOnAdd();
+            repository.load();
+
+            if (writeBehind) {
+                WriteBehind.start(60_000, Integer.MAX_VALUE);
+            }
+            int writers = 3;
+            int perWriter = 300;
+            ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+            try {
+                List<Future<?>> adds = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    int writer = w;
+                    adds.add(pool.submit(() -> {
+                        for (int i = 0; i < perWriter; i++) {
+                            repository.add(new Item("W" + writer + "-" + i, "P1"));
+                        }
+                    }));
+                }
+                Future<?> rewrites = pool.submit(() -> {
+                    while (!adds.stream().allMatch(Future::isDone)) {
+                        repository.saveAll();
+                        WriteBehind.flush();
+                    }
+                });
+                for (Future<?> task : adds) {
+                    task.get(60, TimeUnit.SECONDS);
+                }
+                rewrites.get(60, TimeUnit.SECONDS);
+            } finally {
+                pool.shutdown();
+                WriteBehind.stop();
+            }
+
+            Map<String, Integer> counts = new HashMap<>();
+            List<String> lines = Files.readAllLines(file);
+            for (String line : lines.subList(1, lines.size())) {
+                counts.merge(line.substring(0, line.indexOf(',')), 1, Integer::sum);
+            }
+            assertEquals(writers * perWriter, counts.size(), "write-behind " + writeBehind);
+            counts.forEach((id, count) -> assertEquals(1, count, id + ", write-behind " + writeBehind));
+        }
+    }
+
+    private static ICsvConfig config(Path file) {
+        return new ICsvConfig() {
+            @Override
+            public List<String> getHeaders() {
+                return List.of("ID", "Project");
+            }
+
+            @Override
+            public String getFilePath() {
+                return file.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.CsvTokenizer;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTokenizerTest {
+    @Test
+    @DisplayName("Plain fields are split and trimmed")
+    void plainFields() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("A1, S1234567A ,P1,,\n"));
+
+        assertArrayEquals(new String[]{"A1", "S1234567A", "P1", "", ""}, tokenizer.next());
+        assertNull(tokenizer.next());
+    }
+
+    @Test
+    @DisplayName("Quoted fields keep commas, escaped quotes and surrounding spaces")
+    void quotedFields() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("E1,\"Is it \"\"near\"\", the MRT?\",\" padded \"\n"));
+
+        assertArrayEquals(new String[]{"E1", "Is it \"near\", the MRT?", " padded "}, tokenizer.next());
+    }
+
+    @Test
+    @DisplayName("Line breaks inside quotes stay within the field")
+    void embeddedLineBreaks() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("E1,\"line one\r\nline two\"\r\nE2,\"a\nb\"\rE3,c"));
+
+        assertArrayEquals(new String[]{"E1", "line one\r\nline two"}, tokenizer.next());
+        assertArrayEquals(new String[]{"E2", "a\nb"}, tokenizer.next());
+        assertArrayEquals(new String[]{"E3", "c"}, tokenizer.next());
+        assertNull(tokenizer.next());
+    }
+
+    @Test
+    @DisplayName("Blank lines are skipped")
+    void blankLines() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("\n  \nA,B\n\n"));
+
+        assertArrayEquals(new String[]{"A", "B"}, tokenizer.next());
+        assertNull(tokenizer.next());
+    }
+}
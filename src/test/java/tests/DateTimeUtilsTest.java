@@ -0,0 +1,65 @@
+package tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.DateTimeUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateTimeUtilsTest {
+    private static final int[] NANO_STEPS = { 1_000_000_000, 1_000_000, 1_000, 100, 1 };
+
+    @AfterEach
+    void restoreClock() {
+        DateTimeUtils.setClock(null);
+    }
+
+    @Test
+    @DisplayName("The fast ISO path formats and parses exactly like ISO_LOCAL_DATE_TIME")
+    void matchesIsoFormatter() {
+        Random random = new Random(5);
+        for (int i = 0; i < 20_000; i++) {
+            int step = NANO_STEPS[random.nextInt(NANO_STEPS.length)];
+            LocalDateTime dateTime = LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextInt(1_000_000_000 / step) * step);
+
+            String expected = dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            assertEquals(expected, DateTimeUtils.formatDateTime(dateTime));
+            assertEquals(dateTime, DateTimeUtils.parseDateTime(expected));
+
+            String row = "A1;" + expected + "/";
+            assertEquals(dateTime, DateTimeUtils.parseDateTime(row, 3, row.length() - 1));
+        }
+
+        assertEquals(LocalDateTime.of(2025, 2, 15, 9, 0), DateTimeUtils.parseDateTime("2025-02-15T09:00"));
+        assertEquals(LocalDateTime.of(2025, 2, 15, 9, 0), DateTimeUtils.parseDateTime(" 2025-02-15T09:00:00 "));
+        assertEquals(LocalDateTime.of(2025, 4, 21, 4, 58, 41, 360_165_500),
+                DateTimeUtils.parseDateTime("2025-04-21T04:58:41.3601655"));
+        assertEquals("+12025-01-01T00:00:00", DateTimeUtils.formatDateTime(LocalDateTime.of(12025, 1, 1, 0, 0)));
+        assertNull(DateTimeUtils.parseDateTime("2025-02-30T09:00:00"));
+        assertNull(DateTimeUtils.parseDateTime("2025-02-15 09:00:00"));
+        // Accepted by ISO_LOCAL_DATE_TIME, so the fallback must keep accepting them
+        assertEquals(LocalDateTime.of(2025, 2, 15, 9, 0), DateTimeUtils.parseDateTime("2025-02-15t09:00:00."));
+        assertEquals("", DateTimeUtils.formatDateTime(null));
+    }
+
+    @Test
+    @DisplayName("The current time comes from the clock that was set, in Singapore time")
+    void injectableClock() {
+        Instant instant = Instant.parse("2025-04-01T01:00:00Z");
+        DateTimeUtils.setClock(Clock.fixed(instant, ZoneOffset.UTC));
+
+        assertEquals(LocalDateTime.of(2025, 4, 1, 9, 0), DateTimeUtils.getCurrentDateTime());
+        assertEquals(instant.toEpochMilli(), DateTimeUtils.currentTimeMillis());
+        assertEquals(instant.toEpochMilli(), DateTimeUtils.toEpochMilli(DateTimeUtils.getCurrentDateTime()));
+    }
+}
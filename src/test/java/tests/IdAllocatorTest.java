@@ -0,0 +1,106 @@
+package tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.IdAllocator;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdAllocatorTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void stopPersisting() {
+        IdAllocator.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers get unique IDs and the sequence file always covers the IDs handed out")
+    void uniqueAndReservedAhead() throws Exception {
+        Path file = tempDir.resolve("sequences.csv");
+        assertFalse(IdAllocator.open(file));
+        IdAllocator.ENQUIRIES.observe("E41");
+        IdAllocator.ENQUIRIES.observe("RCPT-1234");
+        IdAllocator.save();
+        long start = IdAllocator.ENQUIRIES.getLast();
+        assertTrue(start >= 41);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(pool.submit(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < 5000; i++) {
+                    ids.add(IdAllocator.ENQUIRIES.next());
+                }
+                long first = IdAllocator.ENQUIRIES.nextBlock(10);
+                for (long value = first; value < first + 10; value++) {
+                    ids.add(IdAllocator.ENQUIRIES.format(value));
+                }
+                return ids;
+            }));
+        }
+        Set<String> ids = new HashSet<>();
+        for (Future<List<String>> result : results) {
+            ids.addAll(result.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        assertEquals(8 * 5010, ids.size());
+        assertEquals(start + 8 * 5010, IdAllocator.ENQUIRIES.getLast());
+
+        // Without a clean save the file is ahead of the last ID, so a restart after a crash skips rather than reuses
+        assertTrue(readEnquiryMark(file) >= IdAllocator.ENQUIRIES.getLast());
+        IdAllocator.save();
+        assertEquals(IdAllocator.ENQUIRIES.getLast(), readEnquiryMark(file));
+
+        assertTrue(IdAllocator.open(file));
+        assertEquals("E" + (start + 8 * 5010 + 1), IdAllocator.ENQUIRIES.next());
+    }
+
+    @Test
+    @DisplayName("An ID whose reservation cannot be written is not handed out, and the next call writes it again")
+    void failedReservationFailsAllocation() throws Exception {
+        Path file = tempDir.resolve("sequences.csv");
+        IdAllocator.open(file);
+        IdAllocator.save();
+        long last = IdAllocator.REGISTRATIONS.getLast();
+
+        // A directory in the temp file's place makes the write fail
+        Path tempPath = tempDir.resolve("sequences.csv.tmp");
+        Files.createDirectory(tempPath);
+        assertThrows(UncheckedIOException.class, IdAllocator.REGISTRATIONS::next);
+        assertThrows(UncheckedIOException.class, IdAllocator.REGISTRATIONS::next);
+
+        Files.delete(tempPath);
+        assertEquals("R" + (last + 3), IdAllocator.REGISTRATIONS.next());
+        assertTrue(readMark(file, "registration") >= last + 3);
+    }
+
+    private static long readEnquiryMark(Path file) throws Exception {
+        return readMark(file, "enquiry");
+    }
+
+    private static long readMark(Path file, String sequence) throws Exception {
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith(sequence + ",")) {
+                return Long.parseLong(line.substring(sequence.length() + 1));
+            }
+        }
+        throw new AssertionError("No " + sequence + " sequence in " + file);
+    }
+}
@@ -0,0 +1,83 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.IntervalIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    @DisplayName("Open-at and overlap queries match a linear scan while windows move and are removed")
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        IntervalIndex<String> index = new IntervalIndex<>();
+        // Insertion-ordered, like the repository, so results should come back in this order
+        Map<String, LocalDateTime[]> windows = new LinkedHashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String key = "P" + random.nextInt(400);
+            if (random.nextInt(5) == 0) {
+                index.remove(key);
+                windows.remove(key);
+            } else {
+                LocalDateTime start = BASE.plusDays(random.nextInt(365));
+                LocalDateTime end = start.plusDays(1 + random.nextInt(60));
+                index.put(key, key, start, end);
+                if (windows.containsKey(key)) {
+                    windows.get(key)[0] = start;
+                    windows.get(key)[1] = end;
+                } else {
+                    windows.put(key, new LocalDateTime[] { start, end });
+                }
+            }
+
+            LocalDateTime from = BASE.plusDays(random.nextInt(400)).plusHours(random.nextInt(24));
+            LocalDateTime to = from.plusDays(random.nextInt(30));
+            assertEquals(scan(windows, to, from), index.overlapping(from, to));
+            assertEquals(scan(windows, from, from), index.openAt(from));
+        }
+        assertEquals(windows.size(), index.size());
+    }
+
+    @Test
+    @DisplayName("Windows are open strictly between their start and end, and the next start is found")
+    void boundaries() {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        index.put("P1", "P1", BASE, BASE.plusDays(10));
+        index.put("P2", "P2", BASE.plusDays(5), BASE.plusDays(20));
+        index.put("P3", "P3", null, BASE.plusDays(20));
+
+        assertEquals(List.of(), index.openAt(BASE));
+        assertEquals(List.of("P1"), index.openAt(BASE.plusSeconds(1)));
+        assertEquals(List.of("P1", "P2"), index.openAt(BASE.plusDays(6)));
+        assertEquals(List.of("P2"), index.openAt(BASE.plusDays(10)));
+        assertEquals(List.of("P2"), index.overlapping(BASE.plusDays(10), BASE.plusDays(30)));
+
+        assertEquals(BASE.plusDays(5), index.firstStartAtOrAfter(BASE.plusSeconds(1)));
+        assertEquals(BASE.plusDays(5), index.firstStartAtOrAfter(BASE.plusDays(5)));
+        assertNull(index.firstStartAtOrAfter(BASE.plusDays(6)));
+        assertEquals(2, index.size());
+    }
+
+    // Windows with start < to and end > from, in insertion order
+    private static List<String> scan(Map<String, LocalDateTime[]> windows, LocalDateTime to, LocalDateTime from) {
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime[]> entry : windows.entrySet()) {
+            LocalDateTime[] window = entry.getValue();
+            if (window[0].isBefore(to) && window[1].isAfter(from)) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+}
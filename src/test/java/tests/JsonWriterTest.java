@@ -0,0 +1,40 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonWriterTest {
+    @Test
+    @DisplayName("Nested documents get commas in the right places and strings are escaped as UTF-8")
+    void writesNestedDocument() {
+        JsonWriter json = new JsonWriter(16);
+        json.beginObject()
+                .name("name").value("Acacia \"Breeze\"\n")
+                .name("units").value(-1234567890123L)
+                .name("visible").value(true)
+                .name("manager").value((String) null)
+                .name("flats").beginArray()
+                    .beginObject().name("type").value("TWO_ROOM").endObject()
+                    .beginObject().endObject()
+                    .beginArray().endArray()
+                    .value(0)
+                .endArray()
+                .name("note").value("caf\u00e9 \u2013 \ud83c\udfe0\u0001")
+                .endObject();
+
+        String expected = "{\"name\":\"Acacia \\\"Breeze\\\"\\n\",\"units\":-1234567890123,\"visible\":true,"
+                + "\"manager\":null,\"flats\":[{\"type\":\"TWO_ROOM\"},{},[],0],"
+                + "\"note\":\"caf\u00e9 \u2013 \ud83c\udfe0\\u0001\"}";
+        assertEquals(expected, json.toString());
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, json.size());
+
+        json.reset();
+        json.beginArray().value(Long.MIN_VALUE).endArray();
+        assertEquals("[-9223372036854775808]", json.toString());
+    }
+}
@@ -0,0 +1,45 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.LongHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashMapTest {
+    @Test
+    @DisplayName("Puts, removes and lookups match a HashMap through growth and backward-shift removal")
+    void matchesHashMap() {
+        Random random = new Random(11);
+        LongHashMap<String> map = new LongHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            // A small key range, including 0 and negatives, keeps probe runs long and collisions frequent
+            long key = random.nextInt(5000) - 100;
+            int action = random.nextInt(10);
+            if (action < 5) {
+                String value = "v" + step;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else if (action < 6) {
+                assertEquals(expected.putIfAbsent(key, "w" + step), map.putIfAbsent(key, "w" + step));
+            } else if (action < 8) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = -100; key < 4900; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(0));
+    }
+}
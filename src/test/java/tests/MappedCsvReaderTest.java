@@ -0,0 +1,100 @@
+package tests;
+
+import interfaces.ICsvConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.CsvReader;
+import utils.CsvRecord;
+import utils.MappedCsvReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedCsvReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Parallel chunked read returns the same records in the same order as a sequential read")
+    void matchesSequentialRead() throws IOException {
+        StringBuilder csv = new StringBuilder("EnquiryID,Query,Response\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append('E').append(i).append(',');
+            if (i % 3 == 0) {
+                csv.append("\"multi\nline, \"\"quoted\"\"\nquery ").append(i).append('"');
+            } else {
+                csv.append("plain query ").append(i);
+            }
+            csv.append(",response ").append(i).append('\n');
+        }
+        Path file = tempDir.resolve("enquiry.csv");
+        Files.writeString(file, csv);
+        ICsvConfig config = config(file);
+
+        List<CsvRecord> sequential = CsvReader.read(config);
+        for (int chunks : new int[]{1, 2, 7, 64}) {
+            List<CsvRecord> parallel = MappedCsvReader.read(config, chunks);
+
+            assertEquals(sequential.size(), parallel.size(), "record count with " + chunks + " chunks");
+            for (int i = 0; i < sequential.size(); i++) {
+                for (int c = 0; c < sequential.get(i).size(); c++) {
+                    assertEquals(sequential.get(i).get(c), parallel.get(i).get(c));
+                }
+            }
+        }
+        assertEquals("multi\nline, \"quoted\"\nquery 0", sequential.get(0).get("Query"));
+    }
+
+    @Test
+    @DisplayName("A stray quote inside an unquoted field does not throw off where later records split")
+    void strayQuoteInUnquotedField() throws IOException {
+        StringBuilder csv = new StringBuilder("EnquiryID,Query,Response\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append('E').append(i).append(',');
+            if (i % 50 == 0) {
+                csv.append("Is the ceiling 5\" tall? ").append(i);
+            } else if (i % 3 == 0) {
+                csv.append("\"multi\nline query ").append(i).append('"');
+            } else {
+                csv.append("plain query ").append(i);
+            }
+            csv.append(",response ").append(i).append('\n');
+        }
+        Path file = tempDir.resolve("enquiry.csv");
+        Files.writeString(file, csv);
+        ICsvConfig config = config(file);
+
+        List<CsvRecord> sequential = CsvReader.read(config);
+        assertEquals(500, sequential.size());
+        assertEquals("Is the ceiling 5\" tall? 50", sequential.get(50).get("Query"));
+        for (int chunks : new int[]{2, 7, 64, 250}) {
+            List<CsvRecord> parallel = MappedCsvReader.read(config, chunks);
+
+            assertEquals(sequential.size(), parallel.size(), "record count with " + chunks + " chunks");
+            for (int i = 0; i < sequential.size(); i++) {
+                for (int c = 0; c < sequential.get(i).size(); c++) {
+                    assertEquals(sequential.get(i).get(c), parallel.get(i).get(c), "record " + i + " with " + chunks + " chunks");
+                }
+            }
+        }
+    }
+
+    private static ICsvConfig config(Path file) {
+        return new ICsvConfig() {
+            @Override
+            public List<String> getHeaders() {
+                return List.of("EnquiryID", "Query", "Response");
+            }
+
+            @Override
+            public String getFilePath() {
+                return file.toString();
+            }
+        };
+    }
+}
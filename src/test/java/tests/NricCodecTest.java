@@ -0,0 +1,36 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.NricCodec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NricCodecTest {
+    @Test
+    @DisplayName("Valid NRICs pack to distinct longs and unpack to the same string; anything else is INVALID")
+    void packRoundTrip() {
+        for (String nric : new String[] { "S0000000A", "S1234567A", "T9999999Z", "T7654321B", "S5678901G" }) {
+            long packed = NricCodec.pack(nric);
+            assertTrue(packed >= 0, nric);
+            assertEquals(nric, NricCodec.unpack(packed));
+        }
+        assertNotEquals(NricCodec.pack("S1234567A"), NricCodec.pack("T1234567A"));
+        assertNotEquals(NricCodec.pack("S1234567A"), NricCodec.pack("S1234567B"));
+
+        for (String invalid : new String[] { null, "", "S123456A", "F1234567A", "S1234567a", "S12345X7A", "S12345678" }) {
+            assertEquals(NricCodec.INVALID, NricCodec.pack(invalid), String.valueOf(invalid));
+        }
+        assertThrows(IllegalArgumentException.class, () -> NricCodec.unpack(NricCodec.INVALID));
+    }
+
+    @Test
+    @DisplayName("Interning returns one shared string per NRIC and leaves other strings alone")
+    void interning() {
+        String first = NricCodec.intern(new String("S2345678B"));
+        assertSame(first, NricCodec.intern(new String("S2345678B")));
+        String other = new String("not-an-nric");
+        assertSame(other, NricCodec.intern(other));
+        assertNull(NricCodec.intern(null));
+    }
+}
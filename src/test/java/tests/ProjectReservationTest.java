@@ -0,0 +1,88 @@
+package tests;
+
+import models.Project;
+import models.enums.FlatType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectReservationTest {
+    private static final int BOOKERS = 64;
+    private static final int ATTEMPTS_PER_BOOKER = 50;
+    private static final int UNITS = 1000;
+
+    @Test
+    @DisplayName("64 concurrent bookers never reserve more units than a project has")
+    void noOversellUnderContention() throws Exception {
+        Project project = new Project("P1", "S1234567A", "Stress Court", "Yishun",
+                List.of(FlatType.TWO_ROOM, FlatType.THREE_ROOM), List.of(UNITS, 5), List.of(350000, 450000),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 10, true,
+                new ArrayList<>(), new ArrayList<>());
+
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int reserved = 0;
+                for (int attempt = 0; attempt < ATTEMPTS_PER_BOOKER; attempt++) {
+                    if (project.tryReserve(FlatType.TWO_ROOM)) {
+                        reserved++;
+                    }
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(UNITS, total);
+        assertEquals(0, project.getAvailableUnits(FlatType.TWO_ROOM));
+        assertEquals(5, project.getAvailableUnits(FlatType.THREE_ROOM));
+        assertFalse(project.tryReserve(FlatType.TWO_ROOM));
+
+        project.release(FlatType.TWO_ROOM);
+        assertTrue(project.tryReserve(FlatType.TWO_ROOM));
+    }
+
+    @Test
+    @DisplayName("Flat types come back in enum order with their own units and prices, whatever order they were given in")
+    void flatTypesPairedInEnumOrder() {
+        Project project = new Project("P2", "S1234567A", "Order Court", "Bedok",
+                List.of(FlatType.THREE_ROOM, FlatType.TWO_ROOM), List.of(7, 3), List.of(650000, 450000),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 10, true,
+                new ArrayList<>(), new ArrayList<>());
+
+        assertEquals(List.of(FlatType.TWO_ROOM, FlatType.THREE_ROOM), project.getFlatTypes());
+        assertEquals(List.of(3, 7), project.getFlatTypeUnits());
+        assertEquals(List.of(450000, 650000), project.getFlatTypeSellingPrice());
+        assertEquals(1, project.getFlatTypeIndex(FlatType.THREE_ROOM));
+
+        List<String> visited = new ArrayList<>();
+        project.forEachFlatType((flatType, units, price) -> visited.add(flatType + ":" + units + ":" + price));
+        assertEquals(List.of("TWO_ROOM:3:450000", "THREE_ROOM:7:650000"), visited);
+
+        project.setFlatTypes(List.of(FlatType.THREE_ROOM));
+        assertFalse(project.hasFlatType(FlatType.TWO_ROOM));
+        assertEquals(0, project.getFlatPrice(FlatType.TWO_ROOM));
+        assertEquals(-1, project.getFlatTypeIndex(FlatType.TWO_ROOM));
+        assertEquals(650000, project.getFlatPrice(FlatType.THREE_ROOM));
+        assertThrows(IllegalArgumentException.class, () -> project.tryReserve(FlatType.TWO_ROOM));
+    }
+}
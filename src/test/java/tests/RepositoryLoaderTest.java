@@ -0,0 +1,38 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repositories.RepositoryLoader;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositoryLoaderTest {
+    @Test
+    @DisplayName("Repositories load after their dependencies and every load is timed")
+    void loadsInDependencyOrder() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        RepositoryLoader loader = new RepositoryLoader()
+                .add("users", () -> order.add("users"))
+                .add("projects", () -> order.add("projects"))
+                .add("officers", () -> order.add("officers"), "users")
+                .add("receipts", () -> order.add("receipts"), "users", "officers", "projects");
+
+        loader.loadAll(4);
+
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("users") < order.indexOf("officers"));
+        assertTrue(order.indexOf("officers") < order.indexOf("receipts"));
+        assertTrue(order.indexOf("projects") < order.indexOf("receipts"));
+        assertEquals(List.of("users", "projects", "officers", "receipts"), List.copyOf(loader.getTimings().keySet()));
+    }
+
+    @Test
+    @DisplayName("Dependencies must be registered before the repositories that use them")
+    void rejectsUnknownDependency() {
+        RepositoryLoader loader = new RepositoryLoader();
+        assertThrows(IllegalArgumentException.class, () -> loader.add("receipts", () -> {}, "users"));
+    }
+}
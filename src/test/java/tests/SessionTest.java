@@ -0,0 +1,66 @@
+package tests;
+
+import models.Session;
+import models.User;
+import models.enums.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repositories.UserRepository;
+import views.CommonView;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionTest {
+    @Test
+    @DisplayName("Concurrent sessions keep their own active user, mode and terminal")
+    void sessionsAreIsolated() throws Exception {
+        CountDownLatch bothLoggedIn = new CountDownLatch(2);
+        AtomicReference<String> aliceSeen = new AtomicReference<>();
+        AtomicReference<String> bobSeen = new AtomicReference<>();
+
+        ByteArrayOutputStream aliceOut = new ByteArrayOutputStream();
+        Session alice = new Session(new ByteArrayInputStream("hello\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(aliceOut, true, StandardCharsets.UTF_8));
+        Session bob = new Session(new ByteArrayInputStream(new byte[0]), new PrintStream(new ByteArrayOutputStream()));
+
+        Thread aliceThread = new Thread(() -> alice.run(() -> {
+            UserRepository.setActiveUser(new User("S1234567A", "Alice", "x", 30));
+            UserRepository.setUserMode(Role.APPLICANT);
+            bothLoggedIn.countDown();
+            await(bothLoggedIn);
+            aliceSeen.set(UserRepository.getActiveUser().getName() + "/" + UserRepository.getUserMode()
+                    + "/" + CommonView.prompt("Say something: "));
+        }));
+        Thread bobThread = new Thread(() -> bob.run(() -> {
+            UserRepository.setActiveUser(new User("T7654321B", "Bob", "x", 40));
+            UserRepository.setUserMode(Role.OFFICER);
+            bothLoggedIn.countDown();
+            await(bothLoggedIn);
+            bobSeen.set(UserRepository.getActiveUser().getName() + "/" + UserRepository.getUserMode());
+        }));
+        aliceThread.start();
+        bobThread.start();
+        aliceThread.join(10_000);
+        bobThread.join(10_000);
+
+        assertEquals("Alice/APPLICANT/hello", aliceSeen.get());
+        assertEquals("Bob/OFFICER", bobSeen.get());
+        assertTrue(aliceOut.toString(StandardCharsets.UTF_8).contains("Say something: "));
+        assertNull(UserRepository.getActiveUser());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
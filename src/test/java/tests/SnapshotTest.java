@@ -0,0 +1,83 @@
+package tests;
+
+import interfaces.ICsvConfig;
+import models.enums.FlatType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.Snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private static class Row {
+        final String id;
+        final FlatType flatType;
+        final LocalDateTime date;
+        final List<String> tags;
+
+        Row(String id, FlatType flatType, LocalDateTime date, List<String> tags) {
+            this.id = id;
+            this.flatType = flatType;
+            this.date = date;
+            this.tags = tags;
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot round-trips typed values and is ignored once its CSV changes")
+    void roundTripAndInvalidate() throws IOException {
+        Path csv = tempDir.resolve("rows.csv");
+        Files.writeString(csv, "ID,FlatType,Date,Tags\n");
+        ICsvConfig config = config(csv);
+
+        LocalDateTime date = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123456789);
+        List<Row> rows = List.of(
+                new Row("S1234567A", FlatType.TWO_ROOM, date, List.of("P1", "P2")),
+                new Row("S1234567A", null, null, List.of()));
+
+        Snapshot.save(config, rows, (row, out) -> {
+            out.writeString(row.id);
+            out.writeEnum(row.flatType);
+            out.writeDateTime(row.date);
+            out.writeStrings(row.tags);
+        });
+
+        List<Row> loaded = Snapshot.load(config, in -> new Row(in.readString(), in.readEnum(FlatType.class), in.readDateTime(), in.readStrings()));
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals("S1234567A", loaded.get(0).id);
+        assertSame(loaded.get(0).id, loaded.get(1).id);
+        assertEquals(FlatType.TWO_ROOM, loaded.get(0).flatType);
+        assertEquals(date, loaded.get(0).date);
+        assertEquals(List.of("P1", "P2"), loaded.get(0).tags);
+        assertNull(loaded.get(1).flatType);
+        assertNull(loaded.get(1).date);
+
+        Files.writeString(csv, "ID,FlatType,Date,Tags\nS7654321B,,,\n");
+        assertNull(Snapshot.load(config, in -> in.readString()));
+    }
+
+    private static ICsvConfig config(Path file) {
+        return new ICsvConfig() {
+            @Override
+            public List<String> getHeaders() {
+                return List.of("ID", "FlatType", "Date", "Tags");
+            }
+
+            @Override
+            public String getFilePath() {
+                return file.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.UnitInventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitInventoryTest {
+    @Test
+    @DisplayName("Units are claimed once, and free units are found by floor and in order")
+    void claimAndFind() {
+        UnitInventory inventory = new UnitInventory(3, 70);
+
+        assertEquals("01-001", inventory.nextFree());
+        assertTrue(inventory.claim("01-001"));
+        assertFalse(inventory.claim("01-001"));
+        assertFalse(inventory.claim("04-001"));
+        assertFalse(inventory.claim("01-071"));
+        assertFalse(inventory.claim("1-001"));
+
+        for (int stack = 2; stack <= 70; stack++) {
+            assertTrue(inventory.claim(UnitInventory.format(1, stack)));
+        }
+        assertEquals("02-001", inventory.claimNextFree());
+        assertTrue(inventory.freeOnFloor(1).isEmpty());
+
+        assertTrue(inventory.release("01-065"));
+        assertTrue(inventory.isFree("01-065"));
+        assertEquals(List.of("01-065"), inventory.freeOnFloor(1));
+        assertEquals("01-065", inventory.nextFree());
+        assertEquals(70, inventory.takenCount());
+    }
+}